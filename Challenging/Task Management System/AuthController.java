@@ -1,8 +1,12 @@
 package com.example.accounts.api;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -12,10 +16,14 @@ import java.util.Objects;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final TokenService tokenService;
+    private final TokenSweeper tokenSweeper;
 
-    public AuthController(TokenService tokenService) {
+    public AuthController(TokenService tokenService, TokenSweeper tokenSweeper) {
         this.tokenService = tokenService;
+        this.tokenSweeper = tokenSweeper;
     }
 
     @PostMapping("/token")
@@ -25,6 +33,22 @@ public class AuthController {
         return ResponseEntity.ok(new TokenResponse(token.token()));
     }
 
+    @DeleteMapping("/token")
+    public ResponseEntity<Void> revokeToken(
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        tokenService.revokeToken(authorization.substring(BEARER_PREFIX.length()).trim());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/token-sweeps")
+    public TokenSweeper.Stats tokenSweeps() {
+        return tokenSweeper.stats();
+    }
+
     public record TokenResponse(String token) {
     }
 }
@@ -0,0 +1,68 @@
+package com.example.accounts.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reconciles the denormalized {@code tasks.comment_count} column with {@code task_comments}. The column is
+ * kept up to date by {@link TaskService#addComment}, so this only corrects drift from comments written or
+ * deleted outside the service, and backfills tasks that predate the column. Tasks are walked in id order in
+ * batches of {@value #BATCH_SIZE}, each reconciled in its own transaction; only rows whose count is wrong
+ * are updated. The backfill runs once as soon as the application is ready; the six-hourly runs after that
+ * only catch drift.
+ */
+@Component
+public class CommentCountRepairJob {
+
+    static final int BATCH_SIZE = 1_000;
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountRepairJob.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CommentCountRepairJob(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        try {
+            repair();
+        } catch (RuntimeException e) {
+            log.error("Could not repair comment counts on startup, the scheduled run will retry", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "PT6H", fixedDelayString = "PT6H")
+    public int repair() {
+        int repaired = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = taskRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+            repaired += transactionTemplate.execute(status -> taskRepository.reconcileCommentCounts(fromId, toId));
+            afterId = toId;
+        }
+
+        if (repaired > 0) {
+            log.warn("Repaired comment counts on {} tasks", repaired);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.accounts.api;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} methods for the whole application, such as {@link TokenSweeper} and
+ * {@link CommentCountRepairJob}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.example.accounts.api;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,17 +13,27 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 public class SecurityConfig {
 
     private final AccountRepository accountRepository;
     private final TokenService tokenService;
+    private final Set<String> adminEmails;
 
-    public SecurityConfig(AccountRepository accountRepository, TokenService tokenService) {
+    public SecurityConfig(AccountRepository accountRepository,
+                          TokenService tokenService,
+                          @Value("${accounts.admin-emails:}") List<String> adminEmails) {
         this.accountRepository = accountRepository;
         this.tokenService = tokenService;
+        this.adminEmails = adminEmails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Bean
@@ -31,6 +42,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
+                        // Bearer tokens only carry ROLE_USER, so this needs an admin's password login.
+                        .requestMatchers("/api/auth/token-sweeps").hasRole("ADMIN")
                         .requestMatchers("/api/tasks/**", "/api/auth/token").authenticated()
                         .anyRequest().permitAll()
                 )
@@ -50,9 +63,12 @@ public class SecurityConfig {
             AccountEntity account = accountRepository.findByNormalizedEmail(normalizedEmail)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
+            String[] roles = adminEmails.contains(account.getNormalizedEmail())
+                    ? new String[] {"USER", "ADMIN"}
+                    : new String[] {"USER"};
             UserDetails user = User.withUsername(account.getNormalizedEmail())
                     .password(account.getPassword())
-                    .roles("USER")
+                    .roles(roles)
                     .build();
             return user;
         };
@@ -0,0 +1,104 @@
+package com.example.accounts.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies self-contained bearer tokens of the form {@code <payload>.<signature>}, both parts
+ * base64url encoded. The payload is {@code <expiresAt epoch seconds>:<nonce>:<normalized email>} and the
+ * signature is its HMAC-SHA256 under {@code tokens.signing-secret}, so verifying a token needs no storage.
+ * Every node that should accept the same tokens must be configured with the same secret, so with
+ * {@code tokens.mode=signed} startup fails unless the secret is at least {@value #MIN_SECRET_BYTES} bytes.
+ * In database mode the codec is unused and gets a random key.
+ */
+@Component
+public class SignedTokenCodec {
+
+    static final int MIN_SECRET_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 12;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public SignedTokenCodec(@Value("${tokens.signing-secret:}") String secret,
+                            @Value("${tokens.mode:database}") String mode) {
+        byte[] keyBytes;
+        if (TokenService.SIGNED_MODE.equalsIgnoreCase(mode.trim())) {
+            keyBytes = StringUtils.hasText(secret) ? secret.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException(
+                        "tokens.signing-secret must be at least " + MIN_SECRET_BYTES + " bytes when tokens.mode=signed");
+            }
+        } else {
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            random.nextBytes(keyBytes);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String issue(String normalizedEmail, Instant expiresAt) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        String payload = expiresAt.getEpochSecond() + ":" + ENCODER.encodeToString(nonce) + ":" + normalizedEmail;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    public Optional<Claims> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return Optional.empty();
+        }
+
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":", 3);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Claims(parts[2], Instant.ofEpochSecond(Long.parseLong(parts[0]))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac instances are not thread-safe, and creating one is cheap next to the request it guards.
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+    }
+
+    public record Claims(String normalizedEmail, Instant expiresAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.accounts.api;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 
@@ -29,8 +31,22 @@ public class TaskController {
     @GetMapping
     public ResponseEntity<List<TaskService.Task>> listTasks(
             @RequestParam(name = "author", required = false) String author,
-            @RequestParam(name = "assignee", required = false) String assignee) {
-        return ResponseEntity.ok(taskService.getAllTasks(author, assignee));
+            @RequestParam(name = "assignee", required = false) String assignee,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "afterId", required = false) Long afterId,
+            @RequestParam(name = "limit", defaultValue = TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        List<TaskService.Task> tasks = taskService.getTasks(author, assignee, status, afterId, limit);
+        if (tasks.size() < limit) {
+            return ResponseEntity.ok(tasks);
+        }
+
+        // A full page may have more behind it; the next one starts below its last id.
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("afterId", tasks.get(tasks.size() - 1).id())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(tasks);
     }
 
     @PostMapping
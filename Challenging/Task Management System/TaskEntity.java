@@ -1,9 +1,15 @@
 package com.example.accounts.api;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+        indexes = {
+                @Index(name = "idx_tasks_author_email", columnList = "author_email, id"),
+                @Index(name = "idx_tasks_assignee_email", columnList = "assignee_email, id"),
+                @Index(name = "idx_tasks_status", columnList = "status, id")
+        })
 public class TaskEntity {
 
     @Id
@@ -25,6 +31,12 @@ public class TaskEntity {
     @Column(name = "assignee_email")
     private String assigneeEmail;
 
+    // Maintained by TaskRepository.incrementCommentCount and reconciled by CommentCountRepairJob. Left out of
+    // entity inserts and updates, so saving a task loaded before a comment landed cannot write back a stale count.
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
     public Long getId() {
         return id;
     }
@@ -72,4 +84,8 @@ public class TaskEntity {
     public void setAssigneeEmail(String assigneeEmail) {
         this.assigneeEmail = assigneeEmail;
     }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
 }
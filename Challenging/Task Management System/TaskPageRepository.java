@@ -0,0 +1,12 @@
+package com.example.accounts.api;
+
+import java.util.List;
+
+public interface TaskPageRepository {
+
+    /**
+     * Newest tasks with an id below {@code afterId}, at most {@code limit} of them. A null filter is left
+     * out of the query rather than matched against, so each combination of filters gets its own plan.
+     */
+    List<TaskEntity> findPageBefore(long afterId, String authorEmail, String assigneeEmail, String status, int limit);
+}
@@ -0,0 +1,45 @@
+package com.example.accounts.api;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset page: seeks below afterId on the id ordering instead of skipping rows with an offset.
+class TaskPageRepositoryImpl implements TaskPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskEntity> findPageBefore(long afterId, String authorEmail, String assigneeEmail, String status,
+                                           int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskEntity> query = builder.createQuery(TaskEntity.class);
+        Root<TaskEntity> task = query.from(TaskEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.lessThan(task.get("id"), afterId));
+        if (authorEmail != null) {
+            predicates.add(builder.equal(task.get("authorEmail"), authorEmail));
+        }
+        if (assigneeEmail != null) {
+            predicates.add(builder.equal(task.get("assigneeEmail"), assigneeEmail));
+        }
+        if (status != null) {
+            predicates.add(builder.equal(task.get("status"), status));
+        }
+
+        query.select(task)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.desc(task.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
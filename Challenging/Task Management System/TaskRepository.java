@@ -1,16 +1,28 @@
 package com.example.accounts.api;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, TaskPageRepository {
 
-    List<TaskEntity> findAllByOrderByIdDesc();
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskEntity t SET t.commentCount = t.commentCount + 1 WHERE t.id = :taskId")
+    int incrementCommentCount(@Param("taskId") long taskId);
 
-    List<TaskEntity> findAllByAuthorEmailOrderByIdDesc(String authorEmail);
+    @Query("SELECT t.id FROM TaskEntity t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
 
-    List<TaskEntity> findAllByAssigneeEmailOrderByIdDesc(String assigneeEmail);
-
-    List<TaskEntity> findAllByAuthorEmailAndAssigneeEmailOrderByIdDesc(String authorEmail, String assigneeEmail);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE TaskEntity t
+            SET t.commentCount = (SELECT COUNT(c.id) FROM TaskCommentEntity c WHERE c.task.id = t.id)
+            WHERE t.id BETWEEN :fromId AND :toId
+              AND t.commentCount <> (SELECT COUNT(c.id) FROM TaskCommentEntity c WHERE c.task.id = t.id)
+            """)
+    int reconcileCommentCounts(@Param("fromId") long fromId, @Param("toId") long toId);
 }
@@ -7,7 +7,6 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -20,6 +19,9 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @Service
 public class TaskService {
 
+    static final String DEFAULT_PAGE_SIZE = "50";
+    static final int MAX_PAGE_SIZE = 200;
+
     private static final String CREATED_STATUS = "CREATED";
     private static final Set<String> VALID_STATUSES = Set.of(
             CREATED_STATUS,
@@ -53,43 +55,33 @@ public class TaskService {
         entity.setAssigneeEmail(null);
 
         TaskEntity saved = taskRepository.save(entity);
-        return toTask(saved, 0L);
+        return toTask(saved);
     }
 
     @Transactional(readOnly = true)
-    public List<Task> getAllTasks(String authorEmail, String assigneeEmail) {
-        String normalizedAuthor = normalizeFilterValue(authorEmail);
-        String normalizedAssignee = normalizeFilterValue(assigneeEmail);
-
-        List<TaskEntity> entities;
-        if (normalizedAuthor != null && normalizedAssignee != null) {
-            entities = taskRepository.findAllByAuthorEmailAndAssigneeEmailOrderByIdDesc(
-                    normalizedAuthor,
-                    normalizedAssignee
-            );
-        } else if (normalizedAuthor != null) {
-            entities = taskRepository.findAllByAuthorEmailOrderByIdDesc(normalizedAuthor);
-        } else if (normalizedAssignee != null) {
-            entities = taskRepository.findAllByAssigneeEmailOrderByIdDesc(normalizedAssignee);
-        } else {
-            entities = taskRepository.findAllByOrderByIdDesc();
+    public List<Task> getTasks(String authorEmail, String assigneeEmail, String status, Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(BAD_REQUEST);
         }
 
-        if (entities.isEmpty()) {
-            return List.of();
+        String normalizedStatus = null;
+        if (StringUtils.hasText(status)) {
+            normalizedStatus = status.trim();
+            if (!VALID_STATUSES.contains(normalizedStatus)) {
+                throw new ResponseStatusException(BAD_REQUEST);
+            }
         }
 
-        List<Long> taskIds = entities.stream()
-                .map(TaskEntity::getId)
-                .collect(Collectors.toList());
-
-        Map<Long, Long> commentCounts = taskCommentRepository.findCommentCountsForTaskIds(taskIds)
-                .stream()
-                .collect(Collectors.toMap(TaskCommentRepository.CommentCount::getTaskId,
-                        TaskCommentRepository.CommentCount::getTotal));
+        List<TaskEntity> entities = taskRepository.findPageBefore(
+                afterId == null ? Long.MAX_VALUE : afterId,
+                normalizeFilterValue(authorEmail),
+                normalizeFilterValue(assigneeEmail),
+                normalizedStatus,
+                limit
+        );
 
         return entities.stream()
-                .map(entity -> toTask(entity, commentCounts.getOrDefault(entity.getId(), 0L)))
+                .map(this::toTask)
                 .collect(Collectors.toList());
     }
 
@@ -157,6 +149,8 @@ public class TaskService {
         entity.setText(sanitizedText);
 
         TaskCommentEntity saved = taskCommentRepository.save(entity);
+        // Row-level increment, so concurrent comments on the same task never lose an update.
+        taskRepository.incrementCommentCount(taskId);
         return toComment(saved);
     }
 
@@ -172,11 +166,6 @@ public class TaskService {
     }
 
     private Task toTask(TaskEntity entity) {
-        long totalComments = taskCommentRepository.countByTask(entity);
-        return toTask(entity, totalComments);
-    }
-
-    private Task toTask(TaskEntity entity, long commentCount) {
         return new Task(
                 String.valueOf(entity.getId()),
                 entity.getTitle(),
@@ -184,7 +173,7 @@ public class TaskService {
                 entity.getStatus(),
                 entity.getAuthorEmail(),
                 entity.getAssigneeEmail() == null ? "none" : entity.getAssigneeEmail(),
-                Math.toIntExact(commentCount)
+                Math.toIntExact(entity.getCommentCount())
         );
     }
 
@@ -0,0 +1,102 @@
+package com.example.accounts.api;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory map from bearer token to the account it was issued for, so that authenticating a
+ * request is a hash lookup instead of a database round trip. Entries expire on the token's own
+ * {@code expiresAt}. When the cache is full, expired entries are dropped first and then arbitrary ones;
+ * a dropped token is simply looked up in the database again.
+ * <p>
+ * Every revocation bumps a generation counter. A caller filling the cache from the database takes
+ * {@link #generation()} before its query and stores through {@link #putIfNotRevokedSince}, which does
+ * nothing if any token was revoked in between; the check and the store are one atomic step per token, so a
+ * revocation that commits while the row is being read cannot be undone by the put.
+ */
+@Component
+public class TokenCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public TokenCache() {
+        this(MAX_ENTRIES);
+    }
+
+    TokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<String> findNormalizedEmail(String token, Instant now) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (!entry.expiresAt().isAfter(now)) {
+            entries.remove(token, entry);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.normalizedEmail());
+    }
+
+    public void put(String token, String normalizedEmail, Instant expiresAt) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        entries.put(token, new Entry(normalizedEmail, expiresAt));
+        if (entries.size() > maxEntries) {
+            shrink(Instant.now());
+        }
+    }
+
+    public void putIfNotRevokedSince(String token, String normalizedEmail, Instant expiresAt, long readGeneration) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        Entry loaded = new Entry(normalizedEmail, expiresAt);
+        entries.compute(token, (key, current) -> generation.get() == readGeneration ? loaded : current);
+        if (entries.size() > maxEntries) {
+            shrink(Instant.now());
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void revoke(String token) {
+        generation.incrementAndGet();
+        entries.remove(token);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void shrink(Instant now) {
+        entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+
+        Iterator<String> tokens = entries.keySet().iterator();
+        while (entries.size() > maxEntries && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+
+    private record Entry(String normalizedEmail, Instant expiresAt) {
+    }
+}
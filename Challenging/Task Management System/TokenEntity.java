@@ -6,7 +6,11 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "tokens",
-        uniqueConstraints = @UniqueConstraint(name = "uk_tokens_token", columnNames = "token"))
+        uniqueConstraints = @UniqueConstraint(name = "uk_tokens_token", columnNames = "token"),
+        indexes = {
+                @Index(name = "idx_tokens_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_tokens_account_id", columnList = "account_id, id")
+        })
 public class TokenEntity {
 
     @Id
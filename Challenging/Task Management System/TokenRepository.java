@@ -1,10 +1,58 @@
 package com.example.accounts.api;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<TokenEntity, Long> {
 
     Optional<TokenEntity> findByToken(String token);
+
+    @Query("""
+            SELECT a.normalizedEmail AS normalizedEmail, t.expiresAt AS expiresAt
+            FROM TokenEntity t JOIN t.account a
+            WHERE t.token = :token
+            """)
+    Optional<TokenOwner> findOwnerByToken(@Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM TokenEntity t WHERE t.token = :token")
+    int deleteByToken(@Param("token") String token);
+
+    @Query("SELECT t.id FROM TokenEntity t WHERE t.expiresAt <= :now ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Query("""
+            SELECT t.account.id
+            FROM TokenEntity t
+            GROUP BY t.account.id
+            HAVING COUNT(t.id) > :limit
+            """)
+    List<Long> findAccountIdsWithMoreTokensThan(@Param("limit") long limit);
+
+    @Query("SELECT t.id AS id, t.token AS token FROM TokenEntity t WHERE t.account.id = :accountId ORDER BY t.id DESC")
+    List<TokenRef> findTokenRefsNewestFirst(@Param("accountId") long accountId);
+
+    @Modifying
+    @Query("DELETE FROM TokenEntity t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface TokenOwner {
+        String getNormalizedEmail();
+
+        Instant getExpiresAt();
+    }
+
+    interface TokenRef {
+        Long getId();
+
+        String getToken();
+    }
 }
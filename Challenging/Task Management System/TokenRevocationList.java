@@ -0,0 +1,39 @@
+package com.example.accounts.api;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory set of revoked signed tokens. A revoked token only has to be remembered until its own expiry,
+ * after which verification rejects it anyway, so the list stays as small as the number of tokens revoked
+ * within one token lifetime. Entries are never dropped early: forgetting one would make the token valid again.
+ */
+@Component
+public class TokenRevocationList {
+
+    static final int PRUNE_THRESHOLD = 1_000;
+
+    private final ConcurrentMap<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(String token) {
+        return revoked.containsKey(token);
+    }
+
+    public void revoke(String token, Instant expiresAt) {
+        revoked.put(token, expiresAt);
+        if (revoked.size() > PRUNE_THRESHOLD) {
+            prune(Instant.now());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void prune(Instant now) {
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+}
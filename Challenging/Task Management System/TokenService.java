@@ -1,10 +1,15 @@
 package com.example.accounts.api;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,14 +17,30 @@ import java.util.UUID;
 @Service
 public class TokenService {
 
+    static final int MAX_TOKENS_PER_ACCOUNT = 10;
+
     private static final Duration TOKEN_TTL = Duration.ofHours(1);
+    static final String SIGNED_MODE = "signed";
 
     private final TokenRepository tokenRepository;
     private final AccountRepository accountRepository;
+    private final TokenCache tokenCache;
+    private final SignedTokenCodec signedTokenCodec;
+    private final TokenRevocationList revocationList;
+    private final boolean signedTokens;
 
-    public TokenService(TokenRepository tokenRepository, AccountRepository accountRepository) {
+    public TokenService(TokenRepository tokenRepository,
+                        AccountRepository accountRepository,
+                        TokenCache tokenCache,
+                        SignedTokenCodec signedTokenCodec,
+                        TokenRevocationList revocationList,
+                        @Value("${tokens.mode:database}") String mode) {
         this.tokenRepository = tokenRepository;
         this.accountRepository = accountRepository;
+        this.tokenCache = tokenCache;
+        this.signedTokenCodec = signedTokenCodec;
+        this.revocationList = revocationList;
+        this.signedTokens = SIGNED_MODE.equalsIgnoreCase(mode.trim());
     }
 
     @Transactional
@@ -28,24 +49,102 @@ public class TokenService {
         AccountEntity account = accountRepository.findByNormalizedEmail(normalizedEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
 
+        Instant expiresAt = Instant.now().plus(TOKEN_TTL);
+        if (signedTokens) {
+            Instant signedExpiry = expiresAt.truncatedTo(ChronoUnit.SECONDS);
+            return new Token(signedTokenCodec.issue(account.getNormalizedEmail(), signedExpiry), signedExpiry);
+        }
+
         TokenEntity tokenEntity = new TokenEntity();
         tokenEntity.setToken(UUID.randomUUID().toString());
-        tokenEntity.setExpiresAt(Instant.now().plus(TOKEN_TTL));
+        tokenEntity.setExpiresAt(expiresAt);
         tokenEntity.setAccount(account);
 
         TokenEntity saved = tokenRepository.save(tokenEntity);
-        return new Token(saved.getToken(), saved.getExpiresAt());
+        trimTokens(account);
+        Token token = new Token(saved.getToken(), saved.getExpiresAt());
+        // Only cache the token once its row is committed, so a rolled back login never authenticates.
+        afterCommit(() -> tokenCache.put(token.token(), account.getNormalizedEmail(), token.expiresAt()));
+        return token;
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: a cache hit must not open a transaction, and the fallback query is self-contained.
     public Optional<String> findNormalizedEmailByToken(String tokenValue) {
         if (tokenValue == null || tokenValue.isBlank()) {
             return Optional.empty();
         }
 
-        return tokenRepository.findByToken(tokenValue)
-                .filter(entity -> entity.getExpiresAt().isAfter(Instant.now()))
-                .map(entity -> entity.getAccount().getNormalizedEmail());
+        Instant now = Instant.now();
+        if (signedTokens) {
+            // Signed tokens carry their own owner and expiry, so only the revocation list is consulted.
+            return signedTokenCodec.verify(tokenValue)
+                    .filter(claims -> claims.expiresAt().isAfter(now))
+                    .filter(claims -> !revocationList.isRevoked(tokenValue))
+                    .map(SignedTokenCodec.Claims::normalizedEmail);
+        }
+
+        Optional<String> cached = tokenCache.findNormalizedEmail(tokenValue, now);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        // Taken before the query, so a revocation landing while the row is read keeps it out of the cache.
+        long cacheGeneration = tokenCache.generation();
+        return tokenRepository.findOwnerByToken(tokenValue)
+                .filter(owner -> owner.getExpiresAt().isAfter(now))
+                .map(owner -> {
+                    tokenCache.putIfNotRevokedSince(
+                            tokenValue, owner.getNormalizedEmail(), owner.getExpiresAt(), cacheGeneration);
+                    return owner.getNormalizedEmail();
+                });
+    }
+
+    @Transactional
+    public void revokeToken(String tokenValue) {
+        if (tokenValue == null || tokenValue.isBlank()) {
+            return;
+        }
+
+        if (signedTokens) {
+            signedTokenCodec.verify(tokenValue)
+                    .ifPresent(claims -> revocationList.revoke(tokenValue, claims.expiresAt()));
+            return;
+        }
+
+        tokenRepository.deleteByToken(tokenValue);
+        tokenCache.revoke(tokenValue);
+        // Revoked again after commit: a lookup that read the row before the delete landed and started after
+        // the first revoke is refused by the generation check against this one.
+        afterCommit(() -> tokenCache.revoke(tokenValue));
+    }
+
+    /**
+     * Deletes the account's oldest tokens beyond {@value #MAX_TOKENS_PER_ACCOUNT}, so repeated logins
+     * cannot pile up rows between {@link TokenSweeper} runs.
+     */
+    private void trimTokens(AccountEntity account) {
+        List<TokenRepository.TokenRef> tokens = tokenRepository.findTokenRefsNewestFirst(account.getId());
+        if (tokens.size() <= MAX_TOKENS_PER_ACCOUNT) {
+            return;
+        }
+
+        List<TokenRepository.TokenRef> oldest = tokens.subList(MAX_TOKENS_PER_ACCOUNT, tokens.size());
+        tokenRepository.deleteAllByIdIn(oldest.stream().map(TokenRepository.TokenRef::getId).toList());
+        afterCommit(() -> oldest.forEach(token -> tokenCache.revoke(token.getToken())));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private String normalizeEmail(String email) {
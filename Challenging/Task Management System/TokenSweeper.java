@@ -0,0 +1,97 @@
+package com.example.accounts.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the {@code tokens} table from growing without bound. Every run deletes expired tokens in
+ * batches of {@value #BATCH_SIZE}, each in its own short transaction, and then trims accounts holding
+ * more than {@link TokenService#MAX_TOKENS_PER_ACCOUNT} tokens down to their newest ones. Logins already
+ * enforce that cap, so the trim is a backstop for tokens written some other way. Trimmed tokens are also
+ * dropped from the {@link TokenCache}; expired ones age out of it on their own. {@link #stats()} is served
+ * by {@code GET /api/auth/token-sweeps} to the accounts listed in {@code accounts.admin-emails}.
+ */
+@Component
+public class TokenSweeper {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSweeper.class);
+
+    private final TokenRepository tokenRepository;
+    private final TokenCache tokenCache;
+    private final TransactionTemplate transactionTemplate;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder expiredPurged = new LongAdder();
+    private final LongAdder excessEvicted = new LongAdder();
+
+    public TokenSweeper(TokenRepository tokenRepository,
+                        TokenCache tokenCache,
+                        PlatformTransactionManager transactionManager) {
+        this.tokenRepository = tokenRepository;
+        this.tokenCache = tokenCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT1M")
+    public void sweep() {
+        int expired = purgeExpired(Instant.now());
+        int excess = evictExcessTokens();
+        runs.increment();
+        expiredPurged.add(expired);
+        excessEvicted.add(excess);
+        if (expired > 0 || excess > 0) {
+            log.info("Token sweep purged {} expired and {} excess tokens", expired, excess);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(runs.sum(), expiredPurged.sum(), excessEvicted.sum());
+    }
+
+    private int purgeExpired(Instant now) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = tokenRepository.findExpiredIds(now, PageRequest.of(0, BATCH_SIZE));
+                return ids.isEmpty() ? 0 : tokenRepository.deleteAllByIdIn(ids);
+            });
+            total += deleted;
+            if (deleted < BATCH_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    private int evictExcessTokens() {
+        int total = 0;
+        int limit = TokenService.MAX_TOKENS_PER_ACCOUNT;
+        for (Long accountId : tokenRepository.findAccountIdsWithMoreTokensThan(limit)) {
+            List<TokenRepository.TokenRef> excess = transactionTemplate.execute(status -> {
+                List<TokenRepository.TokenRef> tokens = tokenRepository.findTokenRefsNewestFirst(accountId);
+                if (tokens.size() <= limit) {
+                    return List.of();
+                }
+
+                List<TokenRepository.TokenRef> oldest = tokens.subList(limit, tokens.size());
+                tokenRepository.deleteAllByIdIn(oldest.stream().map(TokenRepository.TokenRef::getId).toList());
+                return oldest;
+            });
+            excess.forEach(token -> tokenCache.revoke(token.getToken()));
+            total += excess.size();
+        }
+        return total;
+    }
+
+    public record Stats(long runs, long expiredPurged, long excessEvicted) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.accounts.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = TestApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:signedtokens;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "tokens.mode=signed",
+        "tokens.signing-secret=test-signing-secret-of-at-least-32-bytes"
+})
+@Transactional
+class SignedTokensIntegrationTest {
+
+    private static final String EMAIL = "user1@mail.com";
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private SignedTokenCodec signedTokenCodec;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository.deleteAll();
+        accountRepository.deleteAll();
+
+        AccountEntity entity = new AccountEntity();
+        entity.setEmail(EMAIL);
+        entity.setNormalizedEmail(EMAIL.toLowerCase(Locale.ROOT));
+        entity.setPassword(passwordEncoder.encode(PASSWORD));
+        accountRepository.save(entity);
+    }
+
+    @Test
+    void signedToken_authenticatesWithoutTokenRowUntilRevoked() throws Exception {
+        String token = obtainToken();
+        assertThat(tokenRepository.count()).isZero();
+
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/auth/token")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void signedToken_rejectedWhenTamperedOrExpired() throws Exception {
+        String token = obtainToken();
+        String forged = signedTokenCodec.issue("user2@mail.com", Instant.now().plusSeconds(60));
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+        String expired = signedTokenCodec.issue(EMAIL, Instant.now().minusSeconds(60));
+
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(tampered)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(expired)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String obtainToken() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/auth/token")
+                        .with(httpBasic(EMAIL, PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        JsonNode root = objectMapper.readTree(new String(response, StandardCharsets.UTF_8));
+        return root.get("token").asText();
+    }
+
+    private String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
@@ -9,18 +9,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Locale;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,7 +37,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @TestPropertySource(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
         "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
-        "spring.datasource.driverClassName=org.h2.Driver"
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "accounts.admin-emails=admin@mail.com"
 })
 @Transactional
 class TaskCommentsIntegrationTest {
@@ -54,9 +63,18 @@ class TaskCommentsIntegrationTest {
     @Autowired
     private TokenRepository tokenRepository;
 
+    @Autowired
+    private TokenSweeper tokenSweeper;
+
+    @Autowired
+    private CommentCountRepairJob commentCountRepairJob;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private AccountEntity authorOne;
     private AccountEntity authorTwo;
     private AccountEntity commenter;
@@ -90,6 +108,7 @@ class TaskCommentsIntegrationTest {
                 .andExpect(jsonPath("$.author").value(commenter.getNormalizedEmail()));
 
         assertThat(taskCommentRepository.count()).isEqualTo(1);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getCommentCount()).isEqualTo(1);
     }
 
     @Test
@@ -145,6 +164,85 @@ class TaskCommentsIntegrationTest {
                 .andExpect(jsonPath("$[1].total_comments").value(1));
     }
 
+    @Test
+    void getTasks_pagesByKeysetAndFiltersByStatus() throws Exception {
+        TaskEntity first = persistTask(authorOne, "first task", "a task", "CREATED", null);
+        TaskEntity second = persistTask(authorOne, "second task", "a task", "COMPLETED", null);
+        TaskEntity third = persistTask(authorTwo, "third task", "a task", "CREATED", null);
+
+        String token = obtainToken(authorOne.getEmail());
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("limit", "2")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(String.valueOf(third.getId())))
+                .andExpect(jsonPath("$[1].id").value(String.valueOf(second.getId())))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("afterId=" + second.getId())))
+                .andExpect(header().string(HttpHeaders.LINK, endsWith("; rel=\"next\"")));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("limit", "2")
+                        .param("afterId", String.valueOf(second.getId()))
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(String.valueOf(first.getId())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("status", "CREATED")
+                        .param("author", authorOne.getEmail())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(String.valueOf(first.getId())));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("limit", String.valueOf(TaskService.MAX_PAGE_SIZE + 1))
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks")
+                        .param("status", "UNKNOWN")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void commentCountRepairJob_reconcilesCountsFromComments() {
+        TaskEntity drifted = persistTask(authorOne, "new task", "a task for anyone", "CREATED", null);
+        TaskEntity consistent = persistTask(authorTwo, "second task", "another task", "CREATED", null);
+        persistComment(consistent, commenter, "I'll be happy to take it!");
+
+        TaskCommentEntity unaccounted = new TaskCommentEntity();
+        unaccounted.setTask(drifted);
+        unaccounted.setAuthorEmail(commenter.getNormalizedEmail());
+        unaccounted.setText("Written without going through the service");
+        taskCommentRepository.saveAndFlush(unaccounted);
+
+        assertThat(commentCountRepairJob.repair()).isEqualTo(1);
+        assertThat(taskRepository.findById(drifted.getId()).orElseThrow().getCommentCount()).isEqualTo(1);
+        assertThat(taskRepository.findById(consistent.getId()).orElseThrow().getCommentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateStatus_afterConcurrentComment_keepsCommentCount() {
+        TaskEntity task = persistTask(authorOne, "new task", "a task for anyone", "CREATED", null);
+        taskRepository.flush();
+        TaskEntity loaded = taskRepository.findById(task.getId()).orElseThrow();
+
+        // Another request's comment lands after this one read the task, bypassing its persistence context.
+        jdbcTemplate.update("UPDATE tasks SET comment_count = comment_count + 1 WHERE id = ?", task.getId());
+        loaded.setStatus("IN_PROGRESS");
+        taskRepository.saveAndFlush(loaded);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT comment_count FROM tasks WHERE id = ?", Long.class, task.getId())).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM tasks WHERE id = ?", String.class, task.getId())).isEqualTo("IN_PROGRESS");
+    }
+
     @Test
     void getComments_returnsNewestCommentsFirst() throws Exception {
         TaskEntity task = persistTask(authorOne, "new task", "a task for anyone", "COMPLETED", authorTwo);
@@ -161,6 +259,87 @@ class TaskCommentsIntegrationTest {
                 .andExpect(jsonPath("$[0].author").value(commenter.getNormalizedEmail()));
     }
 
+    @Test
+    void bearerToken_isServedFromCacheUntilRevoked() throws Exception {
+        String token = obtainToken(commenter.getEmail());
+
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk());
+
+        // The first request cached the token, so it keeps working without its row.
+        tokenRepository.deleteAll();
+        tokenRepository.flush();
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/auth/token")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenSweeper_purgesExpiredTokensAndKeepsNewestPerAccount() {
+        Instant now = Instant.now();
+        persistToken(authorOne, now.minus(Duration.ofMinutes(5)));
+        persistToken(authorTwo, now.minus(Duration.ofMinutes(5)));
+        TokenEntity oldest = persistToken(commenter, now.plus(Duration.ofHours(1)));
+        persistToken(commenter, now.plus(Duration.ofHours(1)));
+        for (int i = 0; i < TokenService.MAX_TOKENS_PER_ACCOUNT; i++) {
+            persistToken(commenter, now.plus(Duration.ofHours(1)));
+        }
+        TokenSweeper.Stats before = tokenSweeper.stats();
+
+        tokenSweeper.sweep();
+
+        assertThat(tokenRepository.count()).isEqualTo(TokenService.MAX_TOKENS_PER_ACCOUNT);
+        assertThat(tokenRepository.findOwnerByToken(oldest.getToken())).isEmpty();
+        TokenSweeper.Stats after = tokenSweeper.stats();
+        assertThat(after.expiredPurged() - before.expiredPurged()).isEqualTo(2);
+        assertThat(after.excessEvicted() - before.excessEvicted()).isEqualTo(2);
+    }
+
+    @Test
+    void createToken_keepsOnlyNewestTokensPerAccount() throws Exception {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        TokenEntity oldest = persistToken(commenter, expiresAt);
+        for (int i = 1; i < TokenService.MAX_TOKENS_PER_ACCOUNT; i++) {
+            persistToken(commenter, expiresAt);
+        }
+
+        String token = obtainToken(commenter.getEmail());
+
+        assertThat(tokenRepository.count()).isEqualTo(TokenService.MAX_TOKENS_PER_ACCOUNT);
+        assertThat(tokenRepository.findOwnerByToken(oldest.getToken())).isEmpty();
+        assertThat(tokenRepository.findOwnerByToken(token)).isPresent();
+    }
+
+    @Test
+    void getTokenSweeps_returnsSweeperCountsToAdminsOnly() throws Exception {
+        AccountEntity admin = persistAccount("admin@mail.com");
+        String token = obtainToken(commenter.getEmail());
+        tokenSweeper.sweep();
+
+        mockMvc.perform(get("/api/auth/token-sweeps"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/auth/token-sweeps")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/auth/token-sweeps")
+                        .with(httpBasic(commenter.getEmail(), PASSWORD)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/auth/token-sweeps")
+                        .with(httpBasic(admin.getEmail(), PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runs").value(tokenSweeper.stats().runs()))
+                .andExpect(jsonPath("$.expired_purged").exists())
+                .andExpect(jsonPath("$.excess_evicted").exists());
+    }
+
     private AccountEntity persistAccount(String email) {
         AccountEntity entity = new AccountEntity();
         entity.setEmail(email);
@@ -184,7 +363,17 @@ class TaskCommentsIntegrationTest {
         entity.setTask(task);
         entity.setAuthorEmail(commentAuthor.getNormalizedEmail());
         entity.setText(text);
-        return taskCommentRepository.save(entity);
+        TaskCommentEntity saved = taskCommentRepository.save(entity);
+        taskRepository.incrementCommentCount(task.getId());
+        return saved;
+    }
+
+    private TokenEntity persistToken(AccountEntity account, Instant expiresAt) {
+        TokenEntity entity = new TokenEntity();
+        entity.setToken(UUID.randomUUID().toString());
+        entity.setExpiresAt(expiresAt);
+        entity.setAccount(account);
+        return tokenRepository.save(entity);
     }
 
     private String obtainToken(String email) throws Exception {
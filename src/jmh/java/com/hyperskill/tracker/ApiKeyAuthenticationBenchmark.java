@@ -0,0 +1,95 @@
+package com.hyperskill.tracker;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * API key authentication through the {@link ApiKeyAuthenticator} the tracker endpoints use: the checksum
+ * check, an {@link ApiKeyCache} lookup and the lookup timer. The repository is a stub, so these measure the
+ * cached paths only; every key is looked up once during setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiKeyAuthenticationBenchmark {
+
+    private static final int KEYS = 1_000;
+
+    private ApiKeyAuthenticator authenticator;
+    private String[] knownKeys;
+    private String[] unknownKeys;
+    private String[] malformedKeys;
+
+    @Setup
+    public void setUp() {
+        ApiKeyGenerator generator = new ApiKeyGenerator();
+        Map<String, Application> applications = new HashMap<>();
+        knownKeys = new String[KEYS];
+        unknownKeys = new String[KEYS];
+        malformedKeys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            knownKeys[i] = generator.generate();
+            unknownKeys[i] = generator.generate();
+            malformedKeys[i] = generator.generate().substring(0, 40) + "!";
+
+            Application application = mock(Application.class, withSettings().stubOnly());
+            when(application.getId()).thenReturn((long) i);
+            when(application.getName()).thenReturn("App " + i);
+            when(application.getCategory()).thenReturn("basic");
+            applications.put(knownKeys[i], application);
+        }
+
+        ApplicationRepository repository = mock(ApplicationRepository.class, withSettings().stubOnly());
+        when(repository.findByApiKey(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(applications.get(invocation.<String>getArgument(0))));
+        ApiKeyCache cache = new ApiKeyCache(
+            repository, new ApiKeyCacheProperties(10_000, Duration.ofHours(1), Duration.ofHours(1))
+        );
+        TrackerRecordStore records = new SegmentedTrackerRecordStore(1, 1, Duration.ZERO, Clock.systemUTC());
+        authenticator = new ApiKeyAuthenticator(cache, new TrackerMetrics(new SimpleMeterRegistry(), records, cache));
+        for (int i = 0; i < KEYS; i++) {
+            cache.lookup(knownKeys[i]);
+            cache.lookup(unknownKeys[i]);
+        }
+    }
+
+    @Benchmark
+    public Optional<ApplicationSnapshot> knownKey() {
+        return authenticator.authenticate(knownKeys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public Optional<ApplicationSnapshot> unknownKey() {
+        return authenticator.authenticate(unknownKeys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public Optional<ApplicationSnapshot> malformedKey() {
+        return authenticator.authenticate(malformedKeys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
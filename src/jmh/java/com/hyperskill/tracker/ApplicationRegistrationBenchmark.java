@@ -0,0 +1,69 @@
+package com.hyperskill.tracker;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Concurrent application registration against the embedded H2 database, calling
+ * {@link ApplicationController#register} directly so the numbers exclude HTTP and password checks. Every
+ * call registers a new name, so each one is the single insert of the happy path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationRegistrationBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private final AtomicLong nextName = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ApplicationController controller;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(
+            FitnessTrackerApplication.class,
+            "--server.port=0",
+            "--logging.level.root=warn"
+        );
+        controller = context.getBean(ApplicationController.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        context.getBean(DeveloperRepository.class).save(new Developer(EMAIL, passwordEncoder.encode("password")));
+        authentication = UsernamePasswordAuthenticationToken.authenticated(EMAIL, null, List.of());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApplicationRegistrationResponse> register() {
+        ApplicationRegistrationRequest request =
+            new ApplicationRegistrationRequest("Bench " + nextName.incrementAndGet(), "benchmark", "basic");
+        return controller.register(request, authentication);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Cost of checking a developer's Basic credentials: a full BCrypt comparison at the given work factor
+ * against a hit in the {@link CredentialVerificationCache} that skips it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeveloperCredentialBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private CredentialVerificationCache cache;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        passwordHash = encoder.encode(PASSWORD);
+        cache = new CredentialVerificationCache(new DeveloperAuthProperties(
+            strength, 10_000, Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1)
+        ));
+        cache.verified(EMAIL, PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches(PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public boolean cachedVerification() {
+        return cache.isVerified(EMAIL, PASSWORD, passwordHash);
+    }
+}
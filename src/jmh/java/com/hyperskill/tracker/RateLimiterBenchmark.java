@@ -0,0 +1,71 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TrackerRateLimiter#tryAcquire} on the in-memory backend. With {@code shared} every thread hits
+ * the same application's limiter, which is the contended case; with {@code distinct} each thread has its
+ * own application and only the backend map is shared. The limit is high enough that requests are admitted.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final AtomicLong NEXT_APPLICATION_ID = new AtomicLong(1L);
+
+    @Param({"TOKEN_BUCKET", "SLIDING_WINDOW_LOG"})
+    public RateLimitPolicy.Algorithm algorithm;
+
+    @Param({"shared", "distinct"})
+    public String contention;
+
+    private TrackerRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        RateLimitPolicy policy = new RateLimitPolicy(algorithm, 1_000_000, Duration.ofMillis(10), 0);
+        TrackerRateLimitProperties properties = new TrackerRateLimitProperties(
+            TrackerRateLimitProperties.Backend.MEMORY,
+            Duration.ofMinutes(10),
+            10,
+            Map.of("basic", policy)
+        );
+        limiter = new TrackerRateLimiter(properties, new InMemoryRateLimitBackend(Duration.ofMinutes(10)));
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private ApplicationSnapshot application;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark benchmark) {
+            long id = benchmark.contention.equals("shared") ? 0L : NEXT_APPLICATION_ID.getAndIncrement();
+            application = new ApplicationSnapshot(id, "App " + id, "basic");
+        }
+    }
+
+    @Benchmark
+    public RateLimitDecision tryAcquire(Caller caller) {
+        return limiter.tryAcquire(caller.application);
+    }
+}
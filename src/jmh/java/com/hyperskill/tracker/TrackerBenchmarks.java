@@ -0,0 +1,39 @@
+package com.hyperskill.tracker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count, 1, 4 and 16 unless {@code -t} is given, and writes each run's
+ * results to {@code target/jmh/threads-N.json} so they can be compared between builds. Any other JMH
+ * command line option, including a benchmark name filter, is passed through.
+ */
+public final class TrackerBenchmarks {
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+
+    private TrackerBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        int[] threadCounts = options.getThreads().hasValue()
+            ? new int[] {options.getThreads().get()}
+            : THREAD_COUNTS;
+
+        Path resultDirectory = Files.createDirectories(Path.of("target", "jmh"));
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                .parent(options)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultDirectory.resolve("threads-" + threads + ".json").toString())
+                .build()).run();
+        }
+    }
+}
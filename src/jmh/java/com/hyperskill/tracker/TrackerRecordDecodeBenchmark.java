@@ -0,0 +1,85 @@
+package com.hyperskill.tracker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+/**
+ * Decoding a default-size batch upload through its message converter: JSON via Jackson against the
+ * {@link TrackerRecordBinaryConverter} layout.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackerRecordDecodeBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    private TrackerRecordBinaryConverter binaryConverter;
+    private byte[] jsonBatch;
+    private byte[] binaryBatch;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        binaryConverter = new TrackerRecordBinaryConverter();
+
+        List<TrackerRecordRequest> requests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requests.add(new TrackerRecordRequest("wearer-" + i, i % 2 == 0 ? "running" : "cycling", 1_200 + i, 300 + i));
+        }
+        jsonBatch = objectMapper.writeValueAsBytes(requests);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(requests.size());
+        for (TrackerRecordRequest request : requests) {
+            for (String value : new String[] {request.username(), request.activity()}) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                output.writeShort(utf8.length);
+                output.write(utf8);
+            }
+            output.writeInt(request.duration());
+            output.writeInt(request.calories());
+        }
+        binaryBatch = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object json() throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(jsonBatch);
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return jsonConverter.read(TrackerRecordRequest[].class, message);
+    }
+
+    @Benchmark
+    public Object binary() throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(binaryBatch);
+        message.getHeaders().setContentType(TrackerRecordBinaryConverter.MEDIA_TYPE);
+        return binaryConverter.read(TrackerRecordRequest[].class, message);
+    }
+}
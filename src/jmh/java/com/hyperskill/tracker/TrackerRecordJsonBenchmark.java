@@ -0,0 +1,68 @@
+package com.hyperskill.tracker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TrackerRecord} JSON serialization: a single record as returned after ingest, and a default-size
+ * page of records written through {@link TrackerRecordStreamWriter} as the listing endpoint does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackerRecordJsonBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private TrackerRecordStreamWriter streamWriter;
+    private TrackerRecord record;
+    private List<TrackerRecord> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        streamWriter = new TrackerRecordStreamWriter(objectMapper);
+        record = new TrackerRecord(42L, "Workout App", "user-42", "running", 1_800, 420);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(new TrackerRecord(i, "Workout App", "user-" + (i % 10), "running", 1_200 + i, 300 + i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Output {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16_384);
+    }
+
+    @Benchmark
+    public byte[] serializeRecord() throws IOException {
+        return objectMapper.writeValueAsBytes(record);
+    }
+
+    @Benchmark
+    public int streamPage(Output output) throws IOException {
+        output.buffer.reset();
+        streamWriter.writeJsonArray(page.iterator(), output.buffer);
+        return output.buffer.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.hyperskill.tracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Record store inserts and listings. The store is filled to capacity first, so inserts also pay for
+ * eviction, and listings read one page of a single application's records the way the listing endpoint
+ * does. {@code log} is the durable store with the interval fsync policy, writing to a temporary directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackerRecordStoreBenchmark {
+
+    private static final int CAPACITY = 100_000;
+    private static final int APPLICATIONS = 50;
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"memory", "log"})
+    public String store;
+
+    private TrackerRecordStore recordStore;
+    private Path logDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (store.equals("log")) {
+            logDirectory = Files.createTempDirectory("tracker-bench");
+            recordStore = new DurableTrackerRecordStore(
+                new TrackerRecordLog(logDirectory, 64 * 1024 * 1024),
+                CAPACITY,
+                1_024,
+                Duration.ZERO,
+                Clock.systemUTC(),
+                DurableTrackerRecordStore.FsyncPolicy.INTERVAL,
+                Duration.ofMillis(10),
+                Duration.ofSeconds(1)
+            );
+        } else {
+            recordStore = new SegmentedTrackerRecordStore(CAPACITY, 1_024, Duration.ZERO, Clock.systemUTC());
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            insert(i % APPLICATIONS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (recordStore instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (logDirectory != null) {
+            try (Stream<Path> files = Files.walk(logDirectory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public TrackerRecord insert() {
+        return insert(ThreadLocalRandom.current().nextInt(APPLICATIONS));
+    }
+
+    @Benchmark
+    public void listApplicationPage(Blackhole blackhole) {
+        String application = "App " + ThreadLocalRandom.current().nextInt(APPLICATIONS);
+        TrackerRecordQuery query = new TrackerRecordQuery(application, null, null, null, null, null, PAGE_SIZE);
+        Iterator<TrackerRecord> records = recordStore.newestFirst(query);
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+        }
+    }
+
+    private TrackerRecord insert(int application) {
+        return recordStore.append(id -> new TrackerRecord(id, "App " + application, "user-" + (id % 100), "running", 1_200, 300));
+    }
+}
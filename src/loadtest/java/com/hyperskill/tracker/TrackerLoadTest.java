@@ -0,0 +1,352 @@
+package com.hyperskill.tracker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Drives a synthetic fleet of wearables against the tracker API and reports throughput, 429 rates and
+ * latency percentiles.
+ * <p>
+ * The fleet is set up through the public API: {@code developers} developers sign up and each registers
+ * {@code apps-per-developer} applications, with categories drawn from the {@code categories} weights.
+ * Then {@code concurrency} workers send a mix of {@code POST /api/tracker} and, with probability
+ * {@code read-ratio}, {@code GET /api/tracker} requests for {@code duration}, each from a random
+ * application. Results from the first {@code warmup} are discarded.
+ * <p>
+ * With {@code rate} set, requests are paced on a fixed schedule and latency is measured from when a
+ * request was due rather than when it was sent, so a stalled server shows up in the percentiles instead
+ * of silently lowering the offered load. With {@code rate=0} every worker sends as fast as it can.
+ * <p>
+ * Without {@code target} the application is started in this JVM on a random port; arguments after
+ * {@code --} are passed to it, e.g. {@code -- --tracker.store.type=log --spring.threads.virtual.enabled=true}.
+ */
+public final class TrackerLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Options options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+
+    private URI target;
+    private volatile boolean recording;
+
+    private TrackerLoadTest(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        latencies.put("POST", new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+        latencies.put("GET", new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context = null;
+        URI target = options.target;
+        if (target == null) {
+            List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=warn"));
+            applicationArgs.addAll(options.applicationArgs);
+            context = SpringApplication.run(FitnessTrackerApplication.class, applicationArgs.toArray(String[]::new));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            target = URI.create("http://localhost:" + port);
+        }
+
+        try {
+            TrackerLoadTest loadTest = new TrackerLoadTest(options);
+            loadTest.target = target;
+            loadTest.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Target %s, %d developers x %d applications, categories %s%n",
+            target, options.developers, options.appsPerDeveloper, options.categories);
+        List<Device> fleet = registerFleet();
+
+        long intervalNanos = options.rate > 0 ? TimeUnit.SECONDS.toNanos(1) / options.rate : 0L;
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long deadline = measureFrom + options.duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            workers.execute(() -> drive(fleet, sequence, start, intervalNanos, deadline));
+        }
+
+        LockSupport.parkNanos(measureFrom - System.nanoTime());
+        recording = true;
+        workers.shutdown();
+        workers.awaitTermination(options.duration.toSeconds() + 60, TimeUnit.SECONDS);
+        report((System.nanoTime() - measureFrom) / 1e9);
+    }
+
+    private List<Device> registerFleet() throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        Random random = new Random(options.seed);
+        List<Device> fleet = new ArrayList<>();
+        for (int d = 0; d < options.developers; d++) {
+            String email = "load-" + run + "-" + d + "@example.com";
+            HttpResponse<String> signup = send(HttpRequest.newBuilder(target.resolve("/api/developers/signup"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", PASSWORD)))
+                .build());
+            expect(signup, 201, "sign up " + email);
+
+            String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+            for (int a = 0; a < options.appsPerDeveloper; a++) {
+                String category = options.pickCategory(random);
+                HttpResponse<String> registration = send(HttpRequest.newBuilder(target.resolve("/api/applications/register"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", authorization)
+                    .POST(json(Map.of(
+                        "name", "Load " + run + " " + d + "-" + a,
+                        "description", "load test device",
+                        "category", category
+                    )))
+                    .build());
+                expect(registration, 201, "register an application for " + email);
+                JsonNode body = objectMapper.readTree(registration.body());
+                fleet.add(new Device(body.get("apikey").asText(), category));
+            }
+        }
+        return fleet;
+    }
+
+    private void drive(List<Device> fleet, AtomicLong sequence, long start, long intervalNanos, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long due = intervalNanos > 0 ? start + sequence.getAndIncrement() * intervalNanos : System.nanoTime();
+            if (due >= deadline) {
+                return;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Device device = fleet.get(random.nextInt(fleet.size()));
+            boolean read = random.nextDouble() < options.readRatio;
+            HttpRequest request = read ? listRequest(device) : createRequest(device, random);
+            String operation = read ? "GET" : "POST";
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (recording) {
+                long latency = Math.min(System.nanoTime() - due, HIGHEST_TRACKABLE_NANOS);
+                latencies.get(operation).recordValue(latency);
+                if (status < 0) {
+                    failures.increment();
+                } else {
+                    outcomes.computeIfAbsent(operation + " " + device.category + " " + status, key -> new LongAdder())
+                        .increment();
+                }
+            }
+        }
+    }
+
+    private HttpRequest createRequest(Device device, ThreadLocalRandom random) {
+        Map<String, Object> record = Map.of(
+            "username", "wearer-" + random.nextInt(1_000),
+            "activity", random.nextBoolean() ? "running" : "cycling",
+            "duration", random.nextInt(60, 7_200),
+            "calories", random.nextInt(10, 1_500)
+        );
+        return HttpRequest.newBuilder(target.resolve("/api/tracker"))
+            .header("Content-Type", "application/json")
+            .header("X-API-Key", device.apiKey)
+            .POST(json(record))
+            .build();
+    }
+
+    private HttpRequest listRequest(Device device) {
+        return HttpRequest.newBuilder(target.resolve("/api/tracker?limit=25"))
+            .header("X-API-Key", device.apiKey)
+            .GET()
+            .build();
+    }
+
+    private void report(double seconds) {
+        long total = 0;
+        long limited = 0;
+        Map<String, long[]> byCategory = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : outcomes.entrySet()) {
+            String[] key = entry.getKey().split(" ");
+            long count = entry.getValue().sum();
+            boolean rejected = key[2].equals("429");
+            total += count;
+            limited += rejected ? count : 0;
+            long[] categoryCounts = byCategory.computeIfAbsent(key[1], ignored -> new long[2]);
+            categoryCounts[0] += count;
+            categoryCounts[1] += rejected ? count : 0;
+            byStatus.merge(key[0] + " " + key[2], count, Long::sum);
+        }
+
+        System.out.printf("%nMeasured %.1f s: %d responses, %.1f req/s, %d transport failures%n",
+            seconds, total, total / seconds, failures.sum());
+        System.out.printf("429 rate %.2f%%%n", percent(limited, total));
+        byCategory.forEach((category, counts) -> System.out.printf("  %-10s %10d responses, 429 rate %.2f%%%n",
+            category, counts[0], percent(counts[1], counts[0])));
+        byStatus.forEach((status, count) -> System.out.printf("  %-10s %10d%n", status, count));
+
+        StringBuilder header = new StringBuilder(String.format("%nLatency (ms)"));
+        for (String label : PERCENTILE_LABELS) {
+            header.append(String.format("%10s", label));
+        }
+        System.out.println(header.append(String.format("%10s", "max")));
+        latencies.forEach((operation, histogram) -> {
+            StringBuilder line = new StringBuilder(String.format("%-12s", operation));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format("%10.2f", histogram.getValueAtPercentile(percentile) / 1e6));
+            }
+            line.append(String.format("%10.2f", histogram.getMaxValue() / 1e6));
+            System.out.println(line);
+        });
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not serialize request body", e);
+        }
+    }
+
+    private static void expect(HttpResponse<String> response, int status, String action) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Could not " + action + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0.0 : 100.0 * part / whole;
+    }
+
+    private record Device(String apiKey, String category) {
+    }
+
+    private static final class Options {
+
+        private URI target;
+        private int developers = 10;
+        private int appsPerDeveloper = 2;
+        private Map<String, Integer> categories = Map.of("basic", 1, "premium", 1);
+        private int concurrency = 16;
+        private int rate;
+        private double readRatio = 0.2;
+        private Duration warmup = Duration.ofSeconds(5);
+        private Duration duration = Duration.ofSeconds(30);
+        private long seed = 42L;
+        private final List<String> applicationArgs = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--")) {
+                    options.applicationArgs.addAll(List.of(args).subList(i + 1, args.length));
+                    break;
+                }
+
+                String[] option = args[i].replaceFirst("^--", "").split("=", 2);
+                if (option.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + args[i]);
+                }
+                String value = option[1];
+                switch (option[0]) {
+                    case "target" -> options.target = URI.create(value);
+                    case "developers" -> options.developers = Integer.parseInt(value);
+                    case "apps-per-developer" -> options.appsPerDeveloper = Integer.parseInt(value);
+                    case "categories" -> options.categories = parseWeights(value);
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "read-ratio" -> options.readRatio = Double.parseDouble(value);
+                    case "warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                    case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + option[0]);
+                }
+            }
+            if (options.developers < 1 || options.appsPerDeveloper < 1 || options.concurrency < 1) {
+                throw new IllegalArgumentException("Developers, applications and concurrency must be positive");
+            }
+            return options;
+        }
+
+        // "basic=3,premium=1" registers three basic applications for every premium one.
+        private static Map<String, Integer> parseWeights(String value) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split("=", 2);
+                weights.put(parts[0].trim(), parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1);
+            }
+            return weights;
+        }
+
+        String pickCategory(Random random) {
+            int total = categories.values().stream().mapToInt(Integer::intValue).sum();
+            int pick = random.nextInt(total);
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(categories).entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("No categories configured");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hyperskill.tracker;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the {@code X-API-Key} header of a tracker request to the application it belongs to, timing
+ * each lookup in {@link TrackerMetrics}.
+ */
+@Component
+public class ApiKeyAuthenticator {
+
+    private final ApiKeyCache apiKeyCache;
+    private final TrackerMetrics metrics;
+
+    public ApiKeyAuthenticator(ApiKeyCache apiKeyCache, TrackerMetrics metrics) {
+        this.apiKeyCache = apiKeyCache;
+        this.metrics = metrics;
+    }
+
+    public Optional<ApplicationSnapshot> authenticate(String apiKey) {
+        if (apiKey == null) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        // Mistyped keys are turned away here so they neither reach the database nor fill the negative cache.
+        Optional<ApplicationSnapshot> application = ApiKeyGenerator.isMalformed(apiKey)
+            ? Optional.empty()
+            : apiKeyCache.lookup(apiKey);
+        metrics.apiKeyLookup(application.isPresent(), System.nanoTime() - start);
+        return application;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches {@link ApplicationRepository#findByApiKey} results as {@link ApplicationSnapshot}s.
+ * <p>
+ * Unknown keys are cached too, for a shorter time, so that a client hammering the API with a bad key
+ * does not reach the database on every request. When the cache grows past its maximum size, expired
+ * entries are dropped first and then arbitrary entries until it is back under the limit.
+ * <p>
+ * Every invalidation bumps a generation counter. A lookup only stores what it loaded if no invalidation
+ * happened since it started, and the store and the removal are serialized per key, so a lookup racing with
+ * a write cannot cache the answer from before the write.
+ */
+@Component
+@EnableConfigurationProperties(ApiKeyCacheProperties.class)
+public class ApiKeyCache {
+
+    private final ApplicationRepository applicationRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Clock clock;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ApiKeyCache(ApplicationRepository applicationRepository, ApiKeyCacheProperties properties) {
+        this(applicationRepository, properties, Clock.systemUTC());
+    }
+
+    ApiKeyCache(ApplicationRepository applicationRepository, ApiKeyCacheProperties properties, Clock clock) {
+        this.applicationRepository = applicationRepository;
+        this.maxSize = properties.maxSize();
+        this.ttlMillis = properties.ttl().toMillis();
+        this.negativeTtlMillis = properties.negativeTtl().toMillis();
+        this.clock = clock;
+    }
+
+    public Optional<ApplicationSnapshot> lookup(String apiKey) {
+        long now = clock.millis();
+        Entry entry = entries.get(apiKey);
+        if (entry != null && entry.expiresAt > now) {
+            if (entry.application == null) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+            }
+            return Optional.ofNullable(entry.application);
+        }
+
+        misses.increment();
+        long loadedGeneration = generation.get();
+        ApplicationSnapshot application = applicationRepository.findByApiKey(apiKey)
+            .map(ApplicationSnapshot::from)
+            .orElse(null);
+        long ttl = application == null ? negativeTtlMillis : ttlMillis;
+        if (ttl > 0L && maxSize > 0) {
+            Entry loaded = new Entry(application, now + ttl);
+            entries.compute(apiKey, (key, current) -> generation.get() == loadedGeneration ? loaded : current);
+            if (entries.size() > maxSize) {
+                shrink(now);
+            }
+        }
+        return Optional.ofNullable(application);
+    }
+
+    public void invalidate(String apiKey) {
+        if (apiKey != null) {
+            generation.incrementAndGet();
+            entries.remove(apiKey);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public ApiKeyCacheStats stats() {
+        return new ApiKeyCacheStats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void shrink(long now) {
+        entries.entrySet().removeIf(candidate -> {
+            if (candidate.getValue().expiresAt <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(ApplicationSnapshot application, long expiresAt) {
+    }
+}
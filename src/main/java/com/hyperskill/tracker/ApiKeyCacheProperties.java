@@ -0,0 +1,14 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "tracker.api-key-cache")
+public record ApiKeyCacheProperties(
+    @DefaultValue("10000") int maxSize,
+    @DefaultValue("5m") Duration ttl,
+    @DefaultValue("30s") Duration negativeTtl
+) {
+}
@@ -0,0 +1,10 @@
+package com.hyperskill.tracker;
+
+public record ApiKeyCacheStats(
+    long hits,
+    long negativeHits,
+    long misses,
+    long evictions,
+    int size
+) {
+}
@@ -0,0 +1,71 @@
+package com.hyperskill.tracker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates application API keys of the form {@code ft_<body><checksum>}.
+ * <p>
+ * The body is 192 random bits, so keys are unique without asking the database; the unique constraint on
+ * {@code applications.api_key} remains the backstop. The checksum is the CRC32 of the prefix and body,
+ * which lets a mistyped or truncated key be rejected without a lookup. Keys issued before this format
+ * carry no prefix and are not checked.
+ */
+@Component
+public class ApiKeyGenerator {
+
+    static final String KEY_PREFIX = "ft_";
+
+    private static final int RANDOM_BYTES = 24;
+    private static final int BODY_LENGTH = 32;
+    private static final int CHECKSUM_LENGTH = 6;
+    private static final int KEY_LENGTH = KEY_PREFIX.length() + BODY_LENGTH + CHECKSUM_LENGTH;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Random random;
+
+    @Autowired
+    public ApiKeyGenerator() {
+        this(new SecureRandom());
+    }
+
+    ApiKeyGenerator(Random random) {
+        this.random = random;
+    }
+
+    public String generate() {
+        byte[] bytes = new byte[RANDOM_BYTES];
+        random.nextBytes(bytes);
+        String key = KEY_PREFIX + ENCODER.encodeToString(bytes);
+        return key + checksum(key);
+    }
+
+    /**
+     * Returns {@code true} for keys that claim the current format but fail its length or checksum.
+     */
+    public static boolean isMalformed(String apiKey) {
+        if (!apiKey.startsWith(KEY_PREFIX)) {
+            return false;
+        }
+        if (apiKey.length() != KEY_LENGTH) {
+            return true;
+        }
+
+        int split = KEY_LENGTH - CHECKSUM_LENGTH;
+        return !checksum(apiKey.substring(0, split)).equals(apiKey.substring(split));
+    }
+
+    private static String checksum(String value) {
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.US_ASCII));
+        byte[] bytes = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array();
+        return ENCODER.encodeToString(bytes);
+    }
+}
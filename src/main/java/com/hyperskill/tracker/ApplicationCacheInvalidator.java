@@ -0,0 +1,53 @@
+package com.hyperskill.tracker;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops the cached API key lookup and the owning developer's cached profile whenever an
+ * {@link Application} is written. Both are dropped again after the transaction completes, because a
+ * lookup that starts before the commit can still read the old row; the caches refuse to store a load that
+ * such an invalidation overtook.
+ */
+@Component
+public class ApplicationCacheInvalidator {
+
+    // Resolved lazily: Hibernate creates this listener while the repositories the cache needs are still being built.
+    private final ObjectProvider<ApiKeyCache> apiKeyCache;
+    private final ObjectProvider<DeveloperProfileCache> profileCache;
+
+    public ApplicationCacheInvalidator(
+        ObjectProvider<ApiKeyCache> apiKeyCache,
+        ObjectProvider<DeveloperProfileCache> profileCache
+    ) {
+        this.apiKeyCache = apiKeyCache;
+        this.profileCache = profileCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void applicationChanged(Application application) {
+        String apiKey = application.getApiKey();
+        Long developerId = application.getDeveloper() == null ? null : application.getDeveloper().getId();
+        ApiKeyCache keys = apiKeyCache.getObject();
+        DeveloperProfileCache profiles = profileCache.getObject();
+        keys.invalidate(apiKey);
+        profiles.invalidate(developerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    keys.invalidate(apiKey);
+                    profiles.invalidate(developerId);
+                }
+            });
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.hyperskill.tracker;
 
-import java.util.UUID;
-
 import jakarta.validation.Valid;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,16 +19,30 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 @RequestMapping("/api/applications")
 public class ApplicationController {
 
+    // A fresh 192-bit key colliding even once is already far-fetched; more attempts only hide a broken generator.
+    private static final int MAX_KEY_ATTEMPTS = 3;
+
     private final ApplicationRepository applicationRepository;
     private final DeveloperRepository developerRepository;
+    private final ApiKeyGenerator apiKeyGenerator;
 
-    public ApplicationController(ApplicationRepository applicationRepository, DeveloperRepository developerRepository) {
+    public ApplicationController(
+        ApplicationRepository applicationRepository,
+        DeveloperRepository developerRepository,
+        ApiKeyGenerator apiKeyGenerator
+    ) {
         this.applicationRepository = applicationRepository;
         this.developerRepository = developerRepository;
+        this.apiKeyGenerator = apiKeyGenerator;
     }
 
+    /**
+     * Registers an application with a single insert. Name and key uniqueness are left to the table's unique
+     * constraints: on a violation the name is checked once to tell a taken name from a key collision, and
+     * only the latter is retried with a new key. Each attempt runs in its own transaction, so a failed
+     * insert does not poison the next one.
+     */
     @PostMapping("/register")
-    @Transactional
     public ResponseEntity<ApplicationRegistrationResponse> register(
         @Valid @RequestBody ApplicationRegistrationRequest request,
         Authentication authentication
@@ -39,36 +51,33 @@ public class ApplicationController {
             throw new ResponseStatusException(UNAUTHORIZED, "Unauthorized");
         }
 
-        if (applicationRepository.existsByName(request.name())) {
-            throw new ResponseStatusException(BAD_REQUEST, "Application name already registered");
-        }
-
         Developer developer = developerRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Unauthorized"));
 
-        String apiKey = generateUniqueApiKey();
-        Application application = new Application(
-            request.name(),
-            request.description(),
-            apiKey,
-            request.category(),
-            developer
-        );
-        Application saved = applicationRepository.save(application);
-        ApplicationRegistrationResponse response = new ApplicationRegistrationResponse(
-            saved.getName(),
-            saved.getApiKey(),
-            saved.getCategory()
-        );
-
-        return ResponseEntity.status(CREATED).body(response);
-    }
-
-    private String generateUniqueApiKey() {
-        String apiKey;
-        do {
-            apiKey = UUID.randomUUID().toString();
-        } while (applicationRepository.existsByApiKey(apiKey));
-        return apiKey;
+        for (int attempt = 1; ; attempt++) {
+            Application application = new Application(
+                request.name(),
+                request.description(),
+                apiKeyGenerator.generate(),
+                request.category(),
+                developer
+            );
+            try {
+                Application saved = applicationRepository.save(application);
+                ApplicationRegistrationResponse response = new ApplicationRegistrationResponse(
+                    saved.getName(),
+                    saved.getApiKey(),
+                    saved.getCategory()
+                );
+                return ResponseEntity.status(CREATED).body(response);
+            } catch (DataIntegrityViolationException e) {
+                if (applicationRepository.existsByName(request.name())) {
+                    throw new ResponseStatusException(BAD_REQUEST, "Application name already registered");
+                }
+                if (attempt >= MAX_KEY_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,12 @@
+package com.hyperskill.tracker;
+
+/**
+ * Immutable view of the {@link Application} fields the tracker endpoints need, safe to share between
+ * requests without touching the persistence context.
+ */
+public record ApplicationSnapshot(long id, String name, String category) {
+
+    public static ApplicationSnapshot from(Application application) {
+        return new ApplicationSnapshot(application.getId(), application.getName(), application.getCategory());
+    }
+}
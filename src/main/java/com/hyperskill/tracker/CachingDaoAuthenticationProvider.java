@@ -0,0 +1,47 @@
+package com.hyperskill.tracker;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that consults the {@link CredentialVerificationCache} before running
+ * the password encoder. The user is still loaded on every request, so removed accounts and changed
+ * passwords take effect immediately.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final CredentialVerificationCache verificationCache;
+
+    public CachingDaoAuthenticationProvider(
+        UserDetailsService userDetailsService,
+        PasswordEncoder passwordEncoder,
+        CredentialVerificationCache verificationCache
+    ) {
+        this.verificationCache = verificationCache;
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            setUserDetailsPasswordService(passwordService);
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(
+        UserDetails userDetails,
+        UsernamePasswordAuthenticationToken authentication
+    ) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null
+            && verificationCache.isVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        verificationCache.verified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -0,0 +1,118 @@
+package com.hyperskill.tracker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers email and password pairs that recently passed a BCrypt check, so repeated HTTP Basic calls
+ * skip the hash.
+ * <p>
+ * Entries are keyed by an HMAC of the pair under a random per-process key; raw passwords are never kept. An
+ * entry also records the stored hash it was checked against and only counts while that hash is still
+ * current, so a password change invalidates it even before {@link #invalidate} is called.
+ */
+@Component
+public class CredentialVerificationCache {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final SecretKeySpec key;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CredentialVerificationCache(DeveloperAuthProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    CredentialVerificationCache(DeveloperAuthProperties properties, Clock clock) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+
+        this.maxSize = properties.verificationCacheSize();
+        this.ttlMillis = properties.verificationCacheTtl().toMillis();
+        this.clock = clock;
+        this.key = new SecretKeySpec(secret, MAC_ALGORITHM);
+    }
+
+    public boolean isVerified(String email, String password, String passwordHash) {
+        if (!enabled()) {
+            return false;
+        }
+
+        Entry entry = entries.get(keyOf(email, password));
+        return entry != null
+            && entry.expiresAt > clock.millis()
+            && MessageDigest.isEqual(
+                entry.passwordHash.getBytes(StandardCharsets.UTF_8),
+                passwordHash.getBytes(StandardCharsets.UTF_8)
+            );
+    }
+
+    public void verified(String email, String password, String passwordHash) {
+        if (!enabled()) {
+            return;
+        }
+
+        long now = clock.millis();
+        entries.put(keyOf(email, password), new Entry(email, passwordHash, now + ttlMillis));
+        if (entries.size() > maxSize) {
+            shrink(now);
+        }
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            entries.values().removeIf(entry -> entry.email.equals(email));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private boolean enabled() {
+        return maxSize > 0 && ttlMillis > 0L;
+    }
+
+    private String keyOf(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            mac.update(email.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private void shrink(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(String email, String passwordHash, long expiresAt) {
+    }
+}
@@ -2,17 +2,20 @@ package com.hyperskill.tracker;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 @Entity
+@EntityListeners(DeveloperCredentialInvalidator.class)
 @Table(name = "developers")
 public class Developer {
 
@@ -29,6 +32,9 @@ public class Developer {
     @OneToMany(mappedBy = "developer")
     private List<Application> applications = new ArrayList<>();
 
+    @Transient
+    private boolean passwordRehashed;
+
     protected Developer() {
         // JPA requirement
     }
@@ -52,6 +58,19 @@ public class Developer {
 
     public void setPassword(String password) {
         this.password = password;
+        this.passwordRehashed = false;
+    }
+
+    /**
+     * Replaces the stored hash with a new encoding of the same password.
+     */
+    public void rehashPassword(String password) {
+        this.password = password;
+        this.passwordRehashed = true;
+    }
+
+    public boolean isPasswordRehashed() {
+        return passwordRehashed;
     }
 
     public List<Application> getApplications() {
@@ -7,14 +7,4 @@ public record DeveloperApplicationView(
     String apikey,
     String category
 ) {
-
-    public static DeveloperApplicationView from(Application application) {
-        return new DeveloperApplicationView(
-            application.getId(),
-            application.getName(),
-            application.getDescription(),
-            application.getApiKey(),
-            application.getCategory()
-        );
-    }
 }
@@ -0,0 +1,20 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * BCrypt work factor for developer passwords, sizing of the cache of recently verified credentials and
+ * lifetime of developer bearer tokens. A zero cache size or TTL turns the cache off.
+ */
+@ConfigurationProperties(prefix = "tracker.auth")
+public record DeveloperAuthProperties(
+    @DefaultValue("10") int bcryptStrength,
+    @DefaultValue("10000") int verificationCacheSize,
+    @DefaultValue("2m") Duration verificationCacheTtl,
+    @DefaultValue("1h") Duration tokenTtl,
+    @DefaultValue("1m") Duration tokenSweepInterval
+) {
+}
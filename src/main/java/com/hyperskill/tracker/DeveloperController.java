@@ -1,13 +1,13 @@
 package com.hyperskill.tracker;
 
-import java.util.List;
-
 import jakarta.validation.Valid;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
@@ -26,17 +27,20 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 public class DeveloperController {
 
     private final DeveloperRepository developerRepository;
-    private final ApplicationRepository applicationRepository;
+    private final DeveloperProfileCache profileCache;
     private final PasswordEncoder passwordEncoder;
+    private final DeveloperTokenStore tokenStore;
 
     public DeveloperController(
         DeveloperRepository developerRepository,
-        ApplicationRepository applicationRepository,
-        PasswordEncoder passwordEncoder
+        DeveloperProfileCache profileCache,
+        PasswordEncoder passwordEncoder,
+        DeveloperTokenStore tokenStore
     ) {
         this.developerRepository = developerRepository;
-        this.applicationRepository = applicationRepository;
+        this.profileCache = profileCache;
         this.passwordEncoder = passwordEncoder;
+        this.tokenStore = tokenStore;
     }
 
     @PostMapping("/signup")
@@ -55,24 +59,41 @@ public class DeveloperController {
             .build();
     }
 
+    @PostMapping("/token")
+    public ResponseEntity<DeveloperToken> issueToken(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResponseStatusException(UNAUTHORIZED, "Unauthorized");
+        }
+        if (authentication instanceof PreAuthenticatedAuthenticationToken) {
+            throw new ResponseStatusException(FORBIDDEN, "Tokens can only be issued for a password login");
+        }
+
+        return ResponseEntity.status(CREATED).body(tokenStore.issue(authentication.getName()));
+    }
+
+    @DeleteMapping("/token")
+    public ResponseEntity<Void> revokeToken(Authentication authentication) {
+        if (!(authentication instanceof PreAuthenticatedAuthenticationToken token)) {
+            throw new ResponseStatusException(BAD_REQUEST, "No bearer token presented");
+        }
+
+        tokenStore.revoke((String) token.getCredentials());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     public DeveloperProfile getDeveloper(@PathVariable long id, Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new ResponseStatusException(UNAUTHORIZED, "Unauthorized");
         }
 
-        Developer developer = developerRepository.findById(id)
+        DeveloperProfile profile = profileCache.lookup(id)
             .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Developer not found"));
 
-        if (!developer.getEmail().equals(authentication.getName())) {
+        if (!profile.email().equals(authentication.getName())) {
             throw new ResponseStatusException(FORBIDDEN, "Forbidden");
         }
 
-        List<DeveloperApplicationView> applications = applicationRepository.findAllByDeveloperOrderByIdDesc(developer)
-            .stream()
-            .map(DeveloperApplicationView::from)
-            .toList();
-
-        return new DeveloperProfile(developer.getId(), developer.getEmail(), applications);
+        return profile;
     }
 }
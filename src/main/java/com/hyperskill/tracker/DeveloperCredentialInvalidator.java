@@ -0,0 +1,35 @@
+package com.hyperskill.tracker;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forgets cached credential verifications and revokes the bearer tokens of a {@link Developer} whose row
+ * was updated or removed. Re-encoding an unchanged password on login keeps the tokens.
+ */
+@Component
+public class DeveloperCredentialInvalidator {
+
+    private final ObjectProvider<CredentialVerificationCache> verificationCache;
+    private final ObjectProvider<DeveloperTokenStore> tokenStore;
+
+    public DeveloperCredentialInvalidator(
+        ObjectProvider<CredentialVerificationCache> verificationCache,
+        ObjectProvider<DeveloperTokenStore> tokenStore
+    ) {
+        this.verificationCache = verificationCache;
+        this.tokenStore = tokenStore;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void developerChanged(Developer developer) {
+        verificationCache.getObject().invalidate(developer.getEmail());
+        if (!developer.isPasswordRehashed()) {
+            tokenStore.getObject().revokeAll(developer.getEmail());
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.hyperskill.tracker;
 
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class DeveloperDetailsService implements UserDetailsService {
+public class DeveloperDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final DeveloperRepository developerRepository;
 
@@ -25,4 +27,20 @@ public class DeveloperDetailsService implements UserDetailsService {
             .roles("DEVELOPER")
             .build();
     }
+
+    /**
+     * Stores a re-encoded password after a successful login whose hash used a lower BCrypt strength than
+     * the configured one. The password itself is unchanged, so the developer's bearer tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Developer developer = developerRepository.findByEmail(user.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("Developer not found"));
+        developer.rehashPassword(newPassword);
+
+        return User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
 }
@@ -0,0 +1,110 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches {@link DeveloperProfile}s by developer id. A profile is loaded with a single projection query
+ * and dropped whenever one of the developer's applications is written. As in {@link ApiKeyCache}, a load
+ * that an invalidation overtook is returned but not cached.
+ */
+@Component
+@EnableConfigurationProperties(DeveloperProfileCacheProperties.class)
+public class DeveloperProfileCache {
+
+    private final DeveloperRepository developerRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public DeveloperProfileCache(DeveloperRepository developerRepository, DeveloperProfileCacheProperties properties) {
+        this(developerRepository, properties, Clock.systemUTC());
+    }
+
+    DeveloperProfileCache(
+        DeveloperRepository developerRepository,
+        DeveloperProfileCacheProperties properties,
+        Clock clock
+    ) {
+        this.developerRepository = developerRepository;
+        this.maxSize = properties.maxSize();
+        this.ttlMillis = properties.ttl().toMillis();
+        this.clock = clock;
+    }
+
+    public Optional<DeveloperProfile> lookup(long developerId) {
+        long now = clock.millis();
+        Entry entry = entries.get(developerId);
+        if (entry != null && entry.expiresAt > now) {
+            return Optional.of(entry.profile);
+        }
+
+        long loadedGeneration = generation.get();
+        Optional<DeveloperProfile> profile = load(developerId);
+        if (profile.isPresent() && ttlMillis > 0L && maxSize > 0) {
+            Entry loaded = new Entry(profile.get(), now + ttlMillis);
+            entries.compute(developerId, (id, current) -> generation.get() == loadedGeneration ? loaded : current);
+            if (entries.size() > maxSize) {
+                shrink(now);
+            }
+        }
+        return profile;
+    }
+
+    public void invalidate(Long developerId) {
+        if (developerId != null) {
+            generation.incrementAndGet();
+            entries.remove(developerId);
+        }
+    }
+
+    private Optional<DeveloperProfile> load(long developerId) {
+        List<DeveloperProfileRow> rows = developerRepository.findProfileRows(developerId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<DeveloperApplicationView> applications = new ArrayList<>(rows.size());
+        for (DeveloperProfileRow row : rows) {
+            if (row.applicationId() != null) {
+                applications.add(new DeveloperApplicationView(
+                    row.applicationId(),
+                    row.name(),
+                    row.description(),
+                    row.apiKey(),
+                    row.category()
+                ));
+            }
+        }
+
+        DeveloperProfileRow first = rows.get(0);
+        return Optional.of(new DeveloperProfile(first.developerId(), first.email(), List.copyOf(applications)));
+    }
+
+    private void shrink(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(DeveloperProfile profile, long expiresAt) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "tracker.profile-cache")
+public record DeveloperProfileCacheProperties(
+    @DefaultValue("10000") int maxSize,
+    @DefaultValue("10m") Duration ttl
+) {
+}
@@ -0,0 +1,16 @@
+package com.hyperskill.tracker;
+
+/**
+ * One row of the developer profile query: the developer's columns repeated next to each of their
+ * applications, or next to nulls when they have none.
+ */
+public record DeveloperProfileRow(
+    Long developerId,
+    String email,
+    Long applicationId,
+    String name,
+    String description,
+    String apiKey,
+    String category
+) {
+}
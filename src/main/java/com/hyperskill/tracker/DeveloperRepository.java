@@ -1,12 +1,25 @@
 package com.hyperskill.tracker;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DeveloperRepository extends JpaRepository<Developer, Long> {
 
     Optional<Developer> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("""
+        SELECT new com.hyperskill.tracker.DeveloperProfileRow(
+            d.id, d.email, a.id, a.name, a.description, a.apiKey, a.category
+        )
+        FROM Developer d LEFT JOIN d.applications a
+        WHERE d.id = :id
+        ORDER BY a.id DESC
+        """)
+    List<DeveloperProfileRow> findProfileRows(@Param("id") long id);
 }
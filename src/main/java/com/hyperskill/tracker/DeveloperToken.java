@@ -0,0 +1,14 @@
+package com.hyperskill.tracker;
+
+import java.time.Instant;
+
+public record DeveloperToken(
+    String token,
+    String tokenType,
+    Instant expiresAt
+) {
+
+    public static DeveloperToken bearer(String token, Instant expiresAt) {
+        return new DeveloperToken(token, "Bearer", expiresAt);
+    }
+}
@@ -0,0 +1,116 @@
+package com.hyperskill.tracker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory store of opaque developer bearer tokens.
+ * <p>
+ * Tokens are 256 random bits; only their SHA-256 digest is kept, so the store itself cannot be replayed.
+ * Expired tokens are rejected on lookup and swept out at most once per {@code token-sweep-interval}.
+ * Tokens live in this JVM only and do not survive a restart.
+ */
+@Component
+public class DeveloperTokenStore {
+
+    static final String TOKEN_PREFIX = "dt_";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final long ttlMillis;
+    private final long sweepIntervalMillis;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE);
+
+    @Autowired
+    public DeveloperTokenStore(DeveloperAuthProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    DeveloperTokenStore(DeveloperAuthProperties properties, Clock clock) {
+        this.ttlMillis = properties.tokenTtl().toMillis();
+        this.sweepIntervalMillis = properties.tokenSweepInterval().toMillis();
+        this.clock = clock;
+    }
+
+    public DeveloperToken issue(String email) {
+        long now = clock.millis();
+        sweepExpired(now);
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAt = now + ttlMillis;
+        sessions.put(digest(token), new Session(email, expiresAt));
+        return DeveloperToken.bearer(token, Instant.ofEpochMilli(expiresAt));
+    }
+
+    public Optional<String> authenticate(String token) {
+        if (token == null || !token.startsWith(TOKEN_PREFIX)) {
+            return Optional.empty();
+        }
+
+        long now = clock.millis();
+        sweepExpired(now);
+        Session session = sessions.get(digest(token));
+        if (session == null || session.expiresAt <= now) {
+            return Optional.empty();
+        }
+        return Optional.of(session.email);
+    }
+
+    public void revoke(String token) {
+        if (token != null) {
+            sessions.remove(digest(token));
+        }
+    }
+
+    public void revokeAll(String email) {
+        if (email != null) {
+            sessions.values().removeIf(session -> session.email.equals(email));
+        }
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    private void sweepExpired(long now) {
+        long previous = lastSweep.get();
+        if (previous == Long.MIN_VALUE) {
+            lastSweep.compareAndSet(previous, now);
+            return;
+        }
+        if (now - previous < sweepIntervalMillis || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+
+        sessions.values().removeIf(session -> session.expiresAt <= now);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Session(String email, long expiresAt) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracker record store that keeps serving reads from memory but writes every record to a
+ * {@link TrackerRecordLog} first, so records survive a restart.
+ * <p>
+ * On construction the log is replayed into the in-memory store, which rebuilds its indexes and resumes
+ * the id sequence after the highest id the log has seen, so ids on the far side of a gap left by a torn
+ * frame are not handed out twice. A background thread forces the log to disk every {@code fsyncInterval}:
+ * under {@link FsyncPolicy#INTERVAL} appends return immediately, under {@link FsyncPolicy#GROUP} they wait for
+ * the next force, so every append that arrived in the same interval shares one fsync. The same thread
+ * deletes log segments that have fallen out of retention or capacity. A failed force or compaction is
+ * logged and retried on the next run; while forcing is failing, group-commit appends fail instead of waiting,
+ * and no append waits longer than {@link #DURABLE_TIMEOUT} for its force.
+ */
+public class DurableTrackerRecordStore implements TrackerRecordStore, AutoCloseable {
+
+    public enum FsyncPolicy {
+        INTERVAL,
+        GROUP
+    }
+
+    static final Duration DURABLE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurableTrackerRecordStore.class);
+
+    private final SegmentedTrackerRecordStore memory;
+    private final TrackerRecordLog log;
+    private final FsyncPolicy fsyncPolicy;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+
+    private volatile RuntimeException forceFailure;
+
+    public DurableTrackerRecordStore(
+        TrackerRecordLog log,
+        int capacity,
+        int segmentSize,
+        Duration retention,
+        Clock clock,
+        FsyncPolicy fsyncPolicy,
+        Duration fsyncInterval,
+        Duration compactionInterval
+    ) {
+        this.log = log;
+        this.fsyncPolicy = fsyncPolicy;
+        this.retentionMillis = retention == null ? 0L : retention.toMillis();
+        this.clock = clock;
+        this.memory = new SegmentedTrackerRecordStore(capacity, segmentSize, retention, clock, log::append);
+
+        log.recover(memory::restore);
+        memory.resumeAfter(log.highestId());
+        compact();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracker-record-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long fsyncMillis = Math.max(1L, fsyncInterval.toMillis());
+        // An exception escaping a periodic task would cancel it for good, so both runs catch and log.
+        scheduler.scheduleWithFixedDelay(this::forceInBackground, fsyncMillis, fsyncMillis, TimeUnit.MILLISECONDS);
+        long compactionMillis = Math.max(1L, compactionInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(
+            this::compactInBackground, compactionMillis, compactionMillis, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public TrackerRecord append(LongFunction<TrackerRecord> factory) {
+        TrackerRecord record = memory.append(factory);
+        awaitDurable(record.id());
+        return record;
+    }
+
+    @Override
+    public List<TrackerRecord> appendAll(List<LongFunction<TrackerRecord>> factories) {
+        List<TrackerRecord> records = memory.appendAll(factories);
+        if (!records.isEmpty()) {
+            awaitDurable(records.get(records.size() - 1).id());
+        }
+        return records;
+    }
+
+    @Override
+    public Iterator<TrackerRecord> newestFirst(TrackerRecordQuery query) {
+        return memory.newestFirst(query);
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @Override
+    public long evictions() {
+        return memory.evictions();
+    }
+
+    /**
+     * Deletes log segments whose records are all past retention or already evicted from memory.
+     */
+    int compact() {
+        long oldestTimestamp = retentionMillis > 0 ? clock.millis() - retentionMillis : Long.MIN_VALUE;
+        return log.compact(memory.oldestId(), oldestTimestamp);
+    }
+
+    void force() {
+        try {
+            log.force();
+            forceFailure = null;
+        } catch (RuntimeException e) {
+            forceFailure = e;
+            throw e;
+        } finally {
+            signalDurable();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+        signalDurable();
+    }
+
+    private void forceInBackground() {
+        try {
+            force();
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not force the tracker record log, will retry", e);
+        }
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not compact the tracker record log, will retry", e);
+        }
+    }
+
+    private void awaitDurable(long id) {
+        if (fsyncPolicy != FsyncPolicy.GROUP) {
+            return;
+        }
+
+        long remainingNanos = DURABLE_TIMEOUT.toNanos();
+        durableLock.lock();
+        try {
+            while (log.durableId() < id) {
+                if (scheduler.isShutdown()) {
+                    throw new IllegalStateException("Tracker record log is closed");
+                }
+                RuntimeException failure = forceFailure;
+                if (failure != null) {
+                    throw new IllegalStateException("Tracker record log could not be forced", failure);
+                }
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Timed out waiting for the tracker record log to be forced");
+                }
+                remainingNanos = durableAdvanced.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the tracker record log", e);
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void signalDurable() {
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+}
@@ -1,87 +1,430 @@
 package com.hyperskill.tracker;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/tracker")
 public class FitnessTrackerController {
 
-    private final ApplicationRepository applicationRepository;
-    private final AtomicLong idSequence = new AtomicLong(1L);
-    private final Deque<TrackerRecord> records = new ConcurrentLinkedDeque<>();
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1_000;
+    static final int MAX_BATCH_SIZE = 1_000;
+
+    private final ApiKeyAuthenticator apiKeyAuthenticator;
+    private final TrackerRecordStore records;
+    private final TrackerRollups rollups;
+    private final TrackerRecordFeed feed;
     private final TrackerRateLimiter trackerRateLimiter;
+    private final TrackerRecordStreamWriter streamWriter;
+    private final TrackerMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     public FitnessTrackerController(
-        ApplicationRepository applicationRepository,
-        TrackerRateLimiter trackerRateLimiter
+        ApiKeyAuthenticator apiKeyAuthenticator,
+        TrackerRecordStore records,
+        TrackerRollups rollups,
+        TrackerRecordFeed feed,
+        TrackerRateLimiter trackerRateLimiter,
+        TrackerRecordStreamWriter streamWriter,
+        TrackerMetrics metrics,
+        ObjectMapper objectMapper,
+        Validator validator
     ) {
-        this.applicationRepository = applicationRepository;
+        this.apiKeyAuthenticator = apiKeyAuthenticator;
+        this.records = records;
+        this.rollups = rollups;
+        this.feed = feed;
         this.trackerRateLimiter = trackerRateLimiter;
+        this.streamWriter = streamWriter;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     @PostMapping
     public ResponseEntity<TrackerRecord> createRecord(
         @RequestHeader(value = "X-API-Key", required = false) String apiKey,
-        @RequestBody TrackerRecordRequest request
+        @RequestBody TrackerRecordRequest request,
+        HttpServletResponse response
     ) {
-        Optional<Application> application = authenticate(apiKey);
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
         if (application.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Application authenticatedApplication = application.get();
-        if (!trackerRateLimiter.tryAcquire(authenticatedApplication)) {
+        ApplicationSnapshot authenticatedApplication = application.get();
+        if (!acquire(authenticatedApplication, response)) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         }
 
-        TrackerRecord record = new TrackerRecord(
-            idSequence.getAndIncrement(),
-            authenticatedApplication.getName(),
+        if (validate(request) != null) {
+            metrics.ingested(0, 1);
+            return ResponseEntity.badRequest().build();
+        }
+
+        TrackerRecord record = records.append(id -> new TrackerRecord(
+            id,
+            authenticatedApplication.name(),
             request.username(),
             request.activity(),
             request.duration(),
             request.calories()
-        );
+        ));
+        rollups.record(record);
+        feed.publish(record);
+        metrics.ingested(1, 0);
 
-        records.offerFirst(record);
         return ResponseEntity.status(HttpStatus.CREATED).body(record);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TrackerBatchResponse> createRecords(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestBody List<TrackerRecordRequest> requests,
+        HttpServletResponse response
+    ) {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        return ingestBatch(application.get(), requests);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TrackerBatchResponse> createRecordsFromNdjson(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        InputStream body,
+        HttpServletResponse response
+    ) throws IOException {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        List<TrackerRecordRequest> requests = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (requests.size() == MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().build();
+            }
+            requests.add(parseNdjsonLine(line));
+        }
+
+        return ingestBatch(application.get(), requests);
+    }
+
+    @PostMapping(path = "/batch", consumes = TrackerRecordBinaryConverter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<TrackerBatchResponse> createRecordsFromBinary(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestBody TrackerRecordRequest[] requests,
+        HttpServletResponse response
+    ) {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        return ingestBatch(application.get(), Arrays.asList(requests));
+    }
+
     @GetMapping
     public ResponseEntity<List<TrackerRecord>> listRecords(
-        @RequestHeader(value = "X-API-Key", required = false) String apiKey
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String activity,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        HttpServletResponse response
     ) {
-        Optional<Application> application = authenticate(apiKey);
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
         if (application.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        if (!trackerRateLimiter.tryAcquire(application.get())) {
+        if (!acquire(application.get(), response)) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         }
 
-        return ResponseEntity.ok(new ArrayList<>(records));
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TrackerRecordQuery query = new TrackerRecordQuery(null, username, activity, from, to, cursor, pageSize);
+        List<TrackerRecord> page = new ArrayList<>(Math.min(pageSize, DEFAULT_PAGE_SIZE));
+        records.newestFirst(query).forEachRemaining(page::add);
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            ok.header(NEXT_CURSOR_HEADER, Long.toString(page.get(page.size() - 1).id()));
+        }
+        return ok.body(page);
+    }
+
+    @GetMapping(path = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void streamRecords(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String activity,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        HttpServletResponse response
+    ) throws IOException {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+
+        if (!acquire(application.get(), response)) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        if (limit != null && limit < 1) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        TrackerRecordQuery query = new TrackerRecordQuery(
+            null, username, activity, from, to, cursor, limit == null ? Integer.MAX_VALUE : limit
+        );
+        if (acceptsNdjson(accept)) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            streamWriter.writeNdjson(records.newestFirst(query), response.getOutputStream());
+        } else {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            streamWriter.writeJsonArray(records.newestFirst(query), response.getOutputStream());
+        }
+    }
+
+    @GetMapping(path = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> feed(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+        HttpServletResponse response
+    ) {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(feed.subscribe(application.get().name(), resumeAfter));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TrackerStats> stats(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String activity,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+        HttpServletResponse response
+    ) {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        return rollups.stats(application.get().name(), username, activity, day)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    @GetMapping("/stats/daily")
+    public ResponseEntity<List<TrackerStats>> dailyStats(
+        @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String activity,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        HttpServletResponse response
+    ) {
+        Optional<ApplicationSnapshot> application = apiKeyAuthenticator.authenticate(apiKey);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!acquire(application.get(), response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= rollups.retentionDays()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<TrackerStats> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Optional<TrackerStats> stats = rollups.stats(application.get().name(), username, activity, day);
+            if (stats.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            days.add(stats.get());
+        }
+        return ResponseEntity.ok(days);
+    }
+
+    private boolean acquire(ApplicationSnapshot application, HttpServletResponse response) {
+        RateLimitDecision decision = trackerRateLimiter.tryAcquire(application);
+        if (decision.limited()) {
+            response.setHeader(RATE_LIMIT_LIMIT_HEADER, Long.toString(decision.limit()));
+            response.setHeader(RATE_LIMIT_REMAINING_HEADER, Long.toString(decision.remaining()));
+        }
+        if (!decision.allowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            metrics.rateLimited(application.category());
+        }
+        return decision.allowed();
+    }
+
+    private ResponseEntity<TrackerBatchResponse> ingestBatch(ApplicationSnapshot application, List<TrackerRecordRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TrackerBatchItemResult[] results = new TrackerBatchItemResult[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        List<LongFunction<TrackerRecord>> factories = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TrackerRecordRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = TrackerBatchItemResult.rejected(i, error);
+                continue;
+            }
+
+            acceptedIndexes.add(i);
+            factories.add(id -> new TrackerRecord(
+                id,
+                application.name(),
+                request.username(),
+                request.activity(),
+                request.duration(),
+                request.calories()
+            ));
+        }
+
+        List<TrackerRecord> created = factories.isEmpty() ? List.of() : records.appendAll(factories);
+        for (int i = 0; i < created.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = TrackerBatchItemResult.created(index, created.get(i));
+            rollups.record(created.get(i));
+            feed.publish(created.get(i));
+        }
+        metrics.ingested(created.size(), requests.size() - created.size());
+
+        return ResponseEntity.ok(new TrackerBatchResponse(
+            created.size(),
+            requests.size() - created.size(),
+            List.of(results)
+        ));
+    }
+
+    private String validate(TrackerRecordRequest request) {
+        if (request == null) {
+            return "Malformed record";
+        }
+
+        Set<ConstraintViolation<TrackerRecordRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private TrackerRecordRequest parseNdjsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, TrackerRecordRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
     }
 
-    private Optional<Application> authenticate(String apiKey) {
-        if (apiKey == null) {
-            return Optional.empty();
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null) {
+            return false;
         }
 
-        return applicationRepository.findByApiKey(apiKey);
+        return MediaType.parseMediaTypes(accept).stream()
+            .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
     }
 }
@@ -0,0 +1,149 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps limiter state in this JVM. Limits are enforced per instance, so with several replicas each one
+ * admits the full quota.
+ * <p>
+ * State is dropped once it has been idle for longer than both the idle timeout and
+ * {@link RateLimitPolicy#resetAfter()}. At that point a bucket would have refilled, burst included, and a
+ * window log would be empty, so forgetting it never lets a client through earlier than the policy allows.
+ */
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final long idleTimeoutMillis;
+    private final ConcurrentMap<Long, LimiterState> states = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE);
+
+    public InMemoryRateLimitBackend(Duration idleTimeout) {
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(long applicationId, RateLimitPolicy policy, long now) {
+        sweepIdleStates(now);
+
+        LimiterState state = states.compute(applicationId, (ignored, existing) ->
+            existing != null && existing.policy().equals(policy) ? existing : newState(policy, now)
+        );
+        return state.tryAcquire(now);
+    }
+
+    int trackedApplications() {
+        return states.size();
+    }
+
+    private void sweepIdleStates(long now) {
+        long previous = lastSweep.get();
+        if (previous == Long.MIN_VALUE) {
+            lastSweep.compareAndSet(previous, now);
+            return;
+        }
+        if (now - previous < idleTimeoutMillis || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+
+        states.values().removeIf(state ->
+            now - state.lastAccess() > Math.max(idleTimeoutMillis, state.policy().resetAfter().toMillis())
+        );
+    }
+
+    private static LimiterState newState(RateLimitPolicy policy, long now) {
+        return switch (policy.algorithm()) {
+            case TOKEN_BUCKET -> new TokenBucket(policy, now);
+            case SLIDING_WINDOW_LOG -> new SlidingWindowLog(policy, now);
+        };
+    }
+
+    private abstract static class LimiterState {
+
+        private final RateLimitPolicy policy;
+        private volatile long lastAccess;
+
+        LimiterState(RateLimitPolicy policy, long now) {
+            this.policy = policy;
+            this.lastAccess = now;
+        }
+
+        RateLimitPolicy policy() {
+            return policy;
+        }
+
+        long lastAccess() {
+            return lastAccess;
+        }
+
+        synchronized RateLimitDecision tryAcquire(long now) {
+            lastAccess = now;
+            return acquire(now);
+        }
+
+        abstract RateLimitDecision acquire(long now);
+    }
+
+    private static final class TokenBucket extends LimiterState {
+
+        private final double tokensPerMilli;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(RateLimitPolicy policy, long now) {
+            super(policy, now);
+            this.tokensPerMilli = (double) policy.limit() / policy.period().toMillis();
+            this.tokens = policy.capacity();
+            this.lastRefill = now;
+        }
+
+        @Override
+        RateLimitDecision acquire(long now) {
+            RateLimitPolicy policy = policy();
+            if (now > lastRefill) {
+                tokens = Math.min(policy.capacity(), tokens + (now - lastRefill) * tokensPerMilli);
+                lastRefill = now;
+            }
+
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return new RateLimitDecision(true, policy.limit(), (long) tokens, 0L);
+            }
+
+            long retryAfter = (long) Math.ceil((1.0 - tokens) / tokensPerMilli);
+            return new RateLimitDecision(false, policy.limit(), 0L, retryAfter);
+        }
+    }
+
+    private static final class SlidingWindowLog extends LimiterState {
+
+        private final long[] acceptedAt;
+        private int oldest;
+        private int count;
+
+        SlidingWindowLog(RateLimitPolicy policy, long now) {
+            super(policy, now);
+            this.acceptedAt = new long[policy.capacity()];
+        }
+
+        @Override
+        RateLimitDecision acquire(long now) {
+            RateLimitPolicy policy = policy();
+            long windowStart = now - policy.period().toMillis();
+            while (count > 0 && acceptedAt[oldest] <= windowStart) {
+                oldest = (oldest + 1) % acceptedAt.length;
+                count--;
+            }
+
+            if (count == acceptedAt.length) {
+                long retryAfter = acceptedAt[oldest] - windowStart;
+                return new RateLimitDecision(false, policy.limit(), 0L, retryAfter);
+            }
+
+            acceptedAt[(oldest + count) % acceptedAt.length] = now;
+            count++;
+            return new RateLimitDecision(true, policy.limit(), acceptedAt.length - count, 0L);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.hyperskill.tracker;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Token buckets shared by all replicas through one database table.
+ * <p>
+ * Buckets are updated with optimistic, version-checked {@code UPDATE}s, so concurrent nodes never hand
+ * out the same token twice. To keep the database off the request path, a node takes up to
+ * {@code lease-size} tokens at once and serves them locally until they are used up or the lease outlives
+ * one policy period; unused leased tokens are simply dropped, which errs on the side of admitting less.
+ * After a rejection the node also remembers when the bucket will have a token again and rejects locally
+ * until then. Only token-bucket policies are supported.
+ * <p>
+ * Rows idle for longer than both the idle timeout and the longest {@link RateLimitPolicy#resetAfter()} are
+ * deleted; by then the bucket would have refilled, burst included, so a fresh row admits no more.
+ */
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    static final String TABLE_NAME = "tracker_rate_limits";
+
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+        + "application_id BIGINT PRIMARY KEY, "
+        + "tokens DOUBLE PRECISION NOT NULL, "
+        + "updated_at BIGINT NOT NULL, "
+        + "version BIGINT NOT NULL)";
+    private static final String SELECT_BUCKET =
+        "SELECT tokens, updated_at, version FROM " + TABLE_NAME + " WHERE application_id = ?";
+    private static final String INSERT_BUCKET =
+        "INSERT INTO " + TABLE_NAME + " (application_id, tokens, updated_at, version) VALUES (?, ?, ?, 0)";
+    private static final String UPDATE_BUCKET = "UPDATE " + TABLE_NAME
+        + " SET tokens = ?, updated_at = ?, version = version + 1 WHERE application_id = ? AND version = ?";
+    private static final String DELETE_IDLE_BUCKETS = "DELETE FROM " + TABLE_NAME + " WHERE updated_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int leaseSize;
+    private final long retainMillis;
+    private final ConcurrentMap<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE);
+
+    public JdbcRateLimitBackend(JdbcTemplate jdbcTemplate, TrackerRateLimitProperties properties) {
+        if (properties.leaseSize() < 1) {
+            throw new IllegalArgumentException("Rate limit lease size must be positive");
+        }
+
+        long longestReset = 0L;
+        for (RateLimitPolicy policy : properties.policies().values()) {
+            requireTokenBucket(policy);
+            longestReset = Math.max(longestReset, policy.resetAfter().toMillis());
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSize = properties.leaseSize();
+        this.retainMillis = Math.max(properties.idleTimeout().toMillis(), longestReset);
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(long applicationId, RateLimitPolicy policy, long now) {
+        requireTokenBucket(policy);
+        sweepIdleBuckets(now);
+
+        Lease lease = leases.computeIfAbsent(applicationId, ignored -> new Lease());
+        lease.lock.lock();
+        try {
+            lease.lastAccess = now;
+            if (lease.tokens > 0 && now < lease.expiresAt) {
+                lease.tokens--;
+                return new RateLimitDecision(true, policy.limit(), lease.tokens + lease.sharedTokens, 0L);
+            }
+            if (now < lease.blockedUntil) {
+                return new RateLimitDecision(false, policy.limit(), 0L, lease.blockedUntil - now);
+            }
+
+            Grant grant = takeTokens(applicationId, policy, now);
+            if (grant.granted() == 0) {
+                lease.tokens = 0;
+                lease.blockedUntil = now + grant.retryAfterMillis();
+                return new RateLimitDecision(false, policy.limit(), 0L, grant.retryAfterMillis());
+            }
+
+            lease.tokens = grant.granted() - 1;
+            lease.sharedTokens = grant.remaining();
+            lease.expiresAt = now + policy.period().toMillis();
+            return new RateLimitDecision(true, policy.limit(), lease.tokens + lease.sharedTokens, 0L);
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    private Grant takeTokens(long applicationId, RateLimitPolicy policy, long now) {
+        double capacity = policy.capacity();
+        double tokensPerMilli = (double) policy.limit() / policy.period().toMillis();
+
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            List<Bucket> buckets = jdbcTemplate.query(
+                SELECT_BUCKET,
+                (resultSet, rowNumber) -> new Bucket(resultSet.getDouble(1), resultSet.getLong(2), resultSet.getLong(3)),
+                applicationId
+            );
+
+            if (buckets.isEmpty()) {
+                int granted = (int) Math.min(leaseSize, Math.floor(capacity));
+                try {
+                    jdbcTemplate.update(INSERT_BUCKET, applicationId, capacity - granted, now);
+                    return new Grant(granted, (long) (capacity - granted), 0L);
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+
+            Bucket bucket = buckets.get(0);
+            double tokens = Math.min(capacity, bucket.tokens() + Math.max(0L, now - bucket.updatedAt()) * tokensPerMilli);
+            int granted = (int) Math.min(leaseSize, Math.floor(tokens));
+            if (granted == 0) {
+                return new Grant(0, 0L, (long) Math.ceil((1.0 - tokens) / tokensPerMilli));
+            }
+
+            long updatedAt = Math.max(now, bucket.updatedAt());
+            if (jdbcTemplate.update(UPDATE_BUCKET, tokens - granted, updatedAt, applicationId, bucket.version()) == 1) {
+                return new Grant(granted, (long) (tokens - granted), 0L);
+            }
+        }
+
+        // Lost every race for this bucket; treat it as empty rather than block the request thread.
+        return new Grant(0, 0L, 1L);
+    }
+
+    private void sweepIdleBuckets(long now) {
+        long previous = lastSweep.get();
+        if (previous == Long.MIN_VALUE) {
+            lastSweep.compareAndSet(previous, now);
+            return;
+        }
+        if (now - previous < retainMillis || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+
+        long cutoff = now - retainMillis;
+        leases.values().removeIf(lease -> lease.lastAccess < cutoff);
+        jdbcTemplate.update(DELETE_IDLE_BUCKETS, cutoff);
+    }
+
+    private static void requireTokenBucket(RateLimitPolicy policy) {
+        if (policy.algorithm() != RateLimitPolicy.Algorithm.TOKEN_BUCKET) {
+            throw new IllegalStateException("The JDBC rate limit backend only supports token-bucket policies");
+        }
+    }
+
+    private static final class Lease {
+
+        // Not a monitor: the lock is held across database calls, which would pin a virtual thread's carrier.
+        private final ReentrantLock lock = new ReentrantLock();
+        private int tokens;
+        private long sharedTokens;
+        private long expiresAt;
+        private long blockedUntil;
+        private volatile long lastAccess;
+    }
+
+    private record Bucket(double tokens, long updatedAt, long version) {
+    }
+
+    private record Grant(int granted, long remaining, long retryAfterMillis) {
+    }
+}
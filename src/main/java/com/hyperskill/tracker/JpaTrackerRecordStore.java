@@ -0,0 +1,529 @@
+package com.hyperskill.tracker;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tracker record store backed by the {@code tracker_records} table.
+ * <p>
+ * Appends take their ids from blocks of the {@code tracker_record_seq} sequence and return as soon as the
+ * record is queued; a background thread writes the queue in JDBC batches of {@code batch-size}. Because ids
+ * are assigned before the insert instead of by an identity column, Hibernate can batch the inserts. Once
+ * {@code max-pending} records are queued, appenders flush inline before queueing their own records, which
+ * throttles ingest to what the database sustains. Reads never flush: they merge the records still queued or
+ * being written with {@code id < cursor} keyset queries served by the {@code (application_id, id)} and
+ * {@code (username, id)} indexes, so a listing always includes the caller's own writes. Application names
+ * are resolved to foreign keys once per flush; records whose application was deleted while they were queued
+ * are dropped. When a batch fails, its rows are retried one by one. A row the table rejects with a data
+ * integrity violation is dropped and logged so it cannot block the queue; any other failure stops the retry
+ * and puts the rows not yet written back at the front of the queue for the next flush. Id blocks are fetched
+ * from the sequence outside the queue lock, so a slow sequence query never holds up readers.
+ * <p>
+ * {@link #size()} runs a count query; {@link #approximateSize()} instead adds the rows this store has
+ * written since startup to a count taken at startup, so it misses rows deleted by anything else.
+ */
+public class JpaTrackerRecordStore implements TrackerRecordStore, AutoCloseable {
+
+    static final String SEQUENCE_NAME = "tracker_record_seq";
+    static final int ID_BLOCK_SIZE = 1_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaTrackerRecordStore.class);
+    private static final int READ_CHUNK_SIZE = 256;
+    private static final String CREATE_SEQUENCE =
+        "CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_NAME + " START WITH 1 INCREMENT BY " + ID_BLOCK_SIZE;
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR " + SEQUENCE_NAME;
+    private static final String SELECT_RECORDS = "SELECT new com.hyperskill.tracker.TrackerRecord("
+        + "r.id, a.name, r.username, r.activity, r.duration, r.calories) "
+        + "FROM TrackerRecordEntity r JOIN r.application a WHERE r.id < :before";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxPending;
+    private final ArrayDeque<PendingRecord> pending = new ArrayDeque<>();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    // Records taken off the queue by the running flush; readers still see them until the flush ends.
+    private List<PendingRecord> inFlight = List.of();
+    // Guarded by queueLock, and moved from flushedRows together with clearing inFlight.
+    private long storedRows;
+    // Rows committed by the running flush; only touched under flushLock.
+    private long flushedRows;
+    private long nextId = 1L;
+    private long idBlockEnd;
+    // Starts of fetched but unused id blocks, guarded by queueLock.
+    private final TreeSet<Long> idBlocks = new TreeSet<>();
+
+    public JpaTrackerRecordStore(
+        EntityManager entityManager,
+        TransactionTemplate transactionTemplate,
+        JdbcTemplate jdbcTemplate,
+        Clock clock,
+        int batchSize,
+        int maxPending,
+        Duration flushInterval
+    ) {
+        if (batchSize < 1 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Batch size must be positive and no larger than max pending");
+        }
+
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        jdbcTemplate.execute(CREATE_SEQUENCE);
+        this.storedRows = entityManager
+            .createQuery("SELECT count(r) FROM TrackerRecordEntity r", Long.class)
+            .getSingleResult();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracker-record-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushMillis = Math.max(1L, flushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushInBackground, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public TrackerRecord append(LongFunction<TrackerRecord> factory) {
+        return appendAll(List.of(factory)).get(0);
+    }
+
+    @Override
+    public List<TrackerRecord> appendAll(List<LongFunction<TrackerRecord>> factories) {
+        if (pendingCount() + factories.size() > maxPending) {
+            // Flushed before queueing, so a failing flush rejects these records instead of losing queued ones.
+            flush();
+        }
+
+        List<TrackerRecord> appended = new ArrayList<>(factories.size());
+        List<PendingRecord> queued = new ArrayList<>(factories.size());
+        int pendingCount;
+        queueLock.lock();
+        try {
+            reserveIds(factories.size());
+            Instant now = clock.instant();
+            for (LongFunction<TrackerRecord> factory : factories) {
+                long id = allocateId();
+                TrackerRecord record = factory.apply(id);
+                if (record.id() != id) {
+                    throw new IllegalStateException("Record id " + record.id() + " does not match assigned id " + id);
+                }
+                queued.add(new PendingRecord(record, now));
+                appended.add(record);
+            }
+            pending.addAll(queued);
+            pendingCount = pending.size();
+        } finally {
+            queueLock.unlock();
+        }
+
+        if (pendingCount >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flushInBackground);
+        }
+        return appended;
+    }
+
+    @Override
+    public Iterator<TrackerRecord> newestFirst(TrackerRecordQuery query) {
+        return new MergingIterator(unflushed(query), new KeysetIterator(query), query.limit());
+    }
+
+    @Override
+    public int size() {
+        List<PendingRecord> unflushed = unflushed(TrackerRecordQuery.all());
+        // Rows of the running flush may already be committed, so only rows older than the queue are counted.
+        long queuedFrom = unflushed.isEmpty() ? Long.MAX_VALUE : unflushed.get(unflushed.size() - 1).record().id();
+        Long count = entityManager
+            .createQuery("SELECT count(r) FROM TrackerRecordEntity r WHERE r.id < :queuedFrom", Long.class)
+            .setParameter("queuedFrom", queuedFrom)
+            .getSingleResult();
+        return (int) Math.min(count + unflushed.size(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long approximateSize() {
+        queueLock.lock();
+        try {
+            return storedRows + inFlight.size() + pending.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every queued record. Flushes run one at a time, so rows reach the table in id order.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingRecord> batch;
+            queueLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                inFlight = batch;
+            } finally {
+                queueLock.unlock();
+            }
+
+            List<PendingRecord> unwritten = batch;
+            try {
+                try {
+                    write(batch);
+                    unwritten = List.of();
+                } catch (RuntimeException batchFailure) {
+                    unwritten = batch.subList(writeIndividually(batch, batchFailure), batch.size());
+                    if (!unwritten.isEmpty()) {
+                        throw batchFailure;
+                    }
+                }
+            } finally {
+                queueLock.lock();
+                try {
+                    storedRows += flushedRows;
+                    flushedRows = 0L;
+                    inFlight = List.of();
+                    for (int i = unwritten.size() - 1; i >= 0; i--) {
+                        pending.addFirst(unwritten.get(i));
+                    }
+                } finally {
+                    queueLock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushInBackground() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not write queued tracker records, will retry", e);
+        }
+    }
+
+    /**
+     * Retries a failed batch one row per transaction, dropping rows the table rejects. Any other failure
+     * points at the database rather than the row, so the retry stops there: the failure is attached to
+     * {@code batchFailure} and the index of the first row not written is returned.
+     */
+    private int writeIndividually(List<PendingRecord> batch, RuntimeException batchFailure) {
+        int dropped = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRecord record = batch.get(i);
+            try {
+                write(List.of(record));
+            } catch (DataIntegrityViolationException e) {
+                dropped++;
+                LOGGER.error("Dropping tracker record {}: {}", record.record(), e.getMostSpecificCause().getMessage());
+            } catch (RuntimeException e) {
+                batchFailure.addSuppressed(e);
+                return i;
+            }
+        }
+        LOGGER.warn("Tracker record batch failed, dropped {} of {} records that could not be written",
+            dropped, batch.size(), batchFailure);
+        return batch.size();
+    }
+
+    private int pendingCount() {
+        queueLock.lock();
+        try {
+            return pending.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Queued and in-flight records matching {@code query}, newest first, at most {@code query.limit()}.
+     */
+    private List<PendingRecord> unflushed(TrackerRecordQuery query) {
+        List<PendingRecord> matching = new ArrayList<>();
+        queueLock.lock();
+        try {
+            Iterator<PendingRecord> queued = pending.descendingIterator();
+            while (queued.hasNext() && matching.size() < query.limit()) {
+                addIfMatching(queued.next(), query, matching);
+            }
+            for (int i = inFlight.size() - 1; i >= 0 && matching.size() < query.limit(); i--) {
+                addIfMatching(inFlight.get(i), query, matching);
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        return matching;
+    }
+
+    private static void addIfMatching(PendingRecord pendingRecord, TrackerRecordQuery query, List<PendingRecord> out) {
+        TrackerRecord record = pendingRecord.record();
+        if ((query.before() == null || record.id() < query.before())
+            && query.matches(record)
+            && (query.from() == null || !pendingRecord.createdAt().isBefore(query.from()))
+            && (query.to() == null || pendingRecord.createdAt().isBefore(query.to()))) {
+            out.add(pendingRecord);
+        }
+    }
+
+    private void write(List<PendingRecord> batch) {
+        Integer rows = transactionTemplate.execute(status -> {
+            Map<String, Long> applicationIds = applicationIds(batch);
+            int written = 0;
+            for (PendingRecord record : batch) {
+                Long applicationId = applicationIds.get(record.record().application());
+                if (applicationId == null) {
+                    LOGGER.warn("Dropping tracker record {} of deleted application {}",
+                        record.record().id(), record.record().application());
+                    continue;
+                }
+
+                Application application = entityManager.getReference(Application.class, applicationId);
+                entityManager.persist(new TrackerRecordEntity(record.record(), application, record.createdAt()));
+                if (++written % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return written;
+        });
+        flushedRows += rows == null ? 0 : rows;
+    }
+
+    private Map<String, Long> applicationIds(List<PendingRecord> batch) {
+        Set<String> names = new HashSet<>();
+        for (PendingRecord record : batch) {
+            names.add(record.record().application());
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        entityManager
+            .createQuery("SELECT a.name, a.id FROM Application a WHERE a.name IN :names", Object[].class)
+            .setParameter("names", names)
+            .getResultList()
+            .forEach(row -> ids.put((String) row[0], (Long) row[1]));
+        return ids;
+    }
+
+    /**
+     * Makes sure at least {@code count} ids are available, fetching sequence blocks with {@code queueLock}
+     * released. Must be called with {@code queueLock} held, and returns with it held again.
+     */
+    private void reserveIds(int count) {
+        while (idBlockEnd - nextId + 1 + (long) idBlocks.size() * ID_BLOCK_SIZE < count) {
+            queueLock.unlock();
+            Long blockStart;
+            try {
+                blockStart = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+            } finally {
+                queueLock.lock();
+            }
+            // Concurrent appenders may fetch blocks out of order; one below ids already handed out is dropped.
+            if (blockStart > idBlockEnd) {
+                idBlocks.add(blockStart);
+            }
+        }
+    }
+
+    private long allocateId() {
+        if (nextId > idBlockEnd) {
+            long blockStart = idBlocks.pollFirst();
+            nextId = blockStart;
+            idBlockEnd = blockStart + ID_BLOCK_SIZE - 1;
+        }
+        return nextId++;
+    }
+
+    private record PendingRecord(TrackerRecord record, Instant createdAt) {
+    }
+
+    /**
+     * Merges unflushed records with table rows by descending id. A record committed while the read runs can
+     * show up on both sides and is returned once.
+     */
+    private static final class MergingIterator implements Iterator<TrackerRecord> {
+
+        private final List<PendingRecord> unflushed;
+        private final Iterator<TrackerRecord> stored;
+        private int unflushedPosition;
+        private TrackerRecord nextStored;
+        private int remaining;
+
+        private MergingIterator(List<PendingRecord> unflushed, Iterator<TrackerRecord> stored, int limit) {
+            this.unflushed = unflushed;
+            this.stored = stored;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && (unflushedPosition < unflushed.size() || peekStored() != null);
+        }
+
+        @Override
+        public TrackerRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            remaining--;
+            TrackerRecord storedRecord = peekStored();
+            TrackerRecord queuedRecord = unflushedPosition < unflushed.size()
+                ? unflushed.get(unflushedPosition).record()
+                : null;
+            if (storedRecord == null || (queuedRecord != null && queuedRecord.id() >= storedRecord.id())) {
+                unflushedPosition++;
+                if (storedRecord != null && queuedRecord.id() == storedRecord.id()) {
+                    nextStored = null;
+                }
+                return queuedRecord;
+            }
+            nextStored = null;
+            return storedRecord;
+        }
+
+        private TrackerRecord peekStored() {
+            if (nextStored == null && stored.hasNext()) {
+                nextStored = stored.next();
+            }
+            return nextStored;
+        }
+    }
+
+    private final class KeysetIterator implements Iterator<TrackerRecord> {
+
+        private final TrackerRecordQuery query;
+        private final String jpql;
+        private List<TrackerRecord> buffer = List.of();
+        private int bufferPosition;
+        private int remaining;
+        private long before;
+        private boolean exhausted;
+
+        private KeysetIterator(TrackerRecordQuery query) {
+            this.query = query;
+            this.jpql = buildQuery(query);
+            this.remaining = query.limit();
+            this.before = query.before() == null ? Long.MAX_VALUE : query.before();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (bufferPosition < buffer.size()) {
+                return true;
+            }
+            if (exhausted || remaining <= 0) {
+                return false;
+            }
+
+            int chunkSize = Math.min(READ_CHUNK_SIZE, remaining);
+            TypedQuery<TrackerRecord> page = entityManager.createQuery(jpql, TrackerRecord.class)
+                .setParameter("before", before)
+                .setMaxResults(chunkSize);
+            if (query.application() != null) {
+                page.setParameter("application", query.application());
+            }
+            if (query.username() != null) {
+                page.setParameter("username", query.username());
+            }
+            if (query.activity() != null) {
+                page.setParameter("activity", query.activity());
+            }
+            if (query.from() != null) {
+                page.setParameter("from", query.from());
+            }
+            if (query.to() != null) {
+                page.setParameter("to", query.to());
+            }
+
+            buffer = page.getResultList();
+            bufferPosition = 0;
+            if (buffer.size() < chunkSize) {
+                exhausted = true;
+            }
+            if (!buffer.isEmpty()) {
+                before = buffer.get(buffer.size() - 1).id();
+                remaining -= buffer.size();
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public TrackerRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.get(bufferPosition++);
+        }
+
+        private static String buildQuery(TrackerRecordQuery query) {
+            StringBuilder jpql = new StringBuilder(SELECT_RECORDS);
+            if (query.application() != null) {
+                jpql.append(" AND a.name = :application");
+            }
+            if (query.username() != null) {
+                jpql.append(" AND r.username = :username");
+            }
+            if (query.activity() != null) {
+                jpql.append(" AND r.activity = :activity");
+            }
+            if (query.from() != null) {
+                jpql.append(" AND r.createdAt >= :from");
+            }
+            if (query.to() != null) {
+                jpql.append(" AND r.createdAt < :to");
+            }
+            return jpql.append(" ORDER BY r.id DESC").toString();
+        }
+    }
+}
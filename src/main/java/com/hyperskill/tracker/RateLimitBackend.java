@@ -0,0 +1,10 @@
+package com.hyperskill.tracker;
+
+/**
+ * Holds rate limit state. Implementations decide where that state lives; the caller has already resolved
+ * which policy applies.
+ */
+public interface RateLimitBackend {
+
+    RateLimitDecision tryAcquire(long applicationId, RateLimitPolicy policy, long now);
+}
@@ -0,0 +1,24 @@
+package com.hyperskill.tracker;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(TrackerRateLimitProperties.class)
+public class RateLimitBackendConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracker.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+    public RateLimitBackend inMemoryRateLimitBackend(TrackerRateLimitProperties properties) {
+        return new InMemoryRateLimitBackend(properties.idleTimeout());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracker.rate-limit.backend", havingValue = "jdbc")
+    public RateLimitBackend jdbcRateLimitBackend(TrackerRateLimitProperties properties, JdbcTemplate jdbcTemplate) {
+        return new JdbcRateLimitBackend(jdbcTemplate, properties);
+    }
+}
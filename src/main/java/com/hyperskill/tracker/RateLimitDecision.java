@@ -0,0 +1,19 @@
+package com.hyperskill.tracker;
+
+public record RateLimitDecision(
+    boolean allowed,
+    long limit,
+    long remaining,
+    long retryAfterMillis
+) {
+
+    public static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, -1L, -1L, 0L);
+
+    public boolean limited() {
+        return limit >= 0L;
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1L, (retryAfterMillis + 999L) / 1_000L);
+    }
+}
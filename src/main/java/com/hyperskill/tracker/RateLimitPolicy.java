@@ -0,0 +1,50 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Allows {@code limit} requests per {@code period}. A token bucket refills at that rate and holds up to
+ * {@code limit + burst} tokens; a sliding-window log admits up to {@code limit + burst} requests in any
+ * window of length {@code period}.
+ */
+public record RateLimitPolicy(
+    @DefaultValue("token-bucket") Algorithm algorithm,
+    @DefaultValue("1") int limit,
+    @DefaultValue("1s") Duration period,
+    @DefaultValue("0") int burst
+) {
+
+    public RateLimitPolicy {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rate limit must be positive");
+        }
+        if (period == null || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit period must be positive");
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("Rate limit burst must not be negative");
+        }
+    }
+
+    public int capacity() {
+        return limit + burst;
+    }
+
+    /**
+     * How long a client has to stay idle before its limiter is back to its initial state: a drained
+     * token bucket needs {@code (limit + burst) / limit} periods to refill, a sliding-window log one period.
+     */
+    public Duration resetAfter() {
+        if (algorithm == Algorithm.SLIDING_WINDOW_LOG) {
+            return period;
+        }
+        return Duration.ofMillis((period.toMillis() * capacity() + limit - 1) / limit);
+    }
+
+    public enum Algorithm {
+        TOKEN_BUCKET,
+        SLIDING_WINDOW_LOG
+    }
+}
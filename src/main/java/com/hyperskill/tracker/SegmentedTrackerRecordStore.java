@@ -0,0 +1,528 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * Keeps the most recent tracker records in a ring of fixed-size segments.
+ * <p>
+ * When the ring is full the oldest segment is dropped as a whole, together with its entries in the
+ * per-application, per-username and per-activity indexes. Records older than the retention window are dropped the
+ * same way. Readers page through the store in small chunks, so a listing never copies the whole store
+ * and never holds the lock while the caller consumes the records. Filtered reads walk the smallest
+ * matching index and time windows are resolved to id bounds by binary search, so the cost of a page
+ * does not grow with the size of the store. A chunk examines at most {@value #MAX_SCANNED_PER_CHUNK}
+ * entries before releasing the lock, so a combined filter that rarely matches does not hold out writers
+ * while it walks its index.
+ */
+public class SegmentedTrackerRecordStore implements TrackerRecordStore {
+
+    private static final int READ_CHUNK_SIZE = 256;
+    private static final int MAX_SCANNED_PER_CHUNK = 4_096;
+
+    private final int segmentSize;
+    private final Segment[] segments;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final Map<String, IdList> applicationIndex = new HashMap<>();
+    private final Map<String, IdList> usernameIndex = new HashMap<>();
+    private final Map<String, IdList> activityIndex = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AppendListener appendListener;
+
+    private long firstId = 1L;
+    private long nextId = 1L;
+    private long lastTimestamp;
+    private long evictions;
+    private long skippedIds;
+
+    public SegmentedTrackerRecordStore(int capacity, int segmentSize, Duration retention, Clock clock) {
+        this(capacity, segmentSize, retention, clock, null);
+    }
+
+    public SegmentedTrackerRecordStore(
+        int capacity,
+        int segmentSize,
+        Duration retention,
+        Clock clock,
+        AppendListener appendListener
+    ) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+
+        this.segmentSize = segmentSize;
+        // One spare segment so that at least `capacity` records survive when the oldest segment is dropped.
+        this.segments = new Segment[(capacity + segmentSize - 1) / segmentSize + 1];
+        this.retentionMillis = retention == null ? 0L : retention.toMillis();
+        this.clock = clock;
+        this.appendListener = appendListener;
+    }
+
+    @Override
+    public TrackerRecord append(LongFunction<TrackerRecord> factory) {
+        lock.writeLock().lock();
+        try {
+            long now = Math.max(clock.millis(), lastTimestamp);
+            evictExpired(now);
+            return appendLocked(factory, now, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TrackerRecord> appendAll(List<LongFunction<TrackerRecord>> factories) {
+        List<TrackerRecord> appended = new ArrayList<>(factories.size());
+        lock.writeLock().lock();
+        try {
+            long now = Math.max(clock.millis(), lastTimestamp);
+            evictExpired(now);
+            for (LongFunction<TrackerRecord> factory : factories) {
+                appended.add(appendLocked(factory, now, true));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return appended;
+    }
+
+    /**
+     * Re-inserts a record read back from durable storage, keeping its id and timestamp. Records must be
+     * restored in id order; ids missing in between are skipped, and the first one restored into an empty
+     * store sets where the id sequence resumes. The append listener is not notified.
+     */
+    public void restore(TrackerRecord record, long timestamp) {
+        lock.writeLock().lock();
+        try {
+            skipTo(record.id());
+            appendLocked(ignored -> record, Math.max(timestamp, lastTimestamp), false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Makes sure the next appended record gets an id above {@code id}, for ids handed out before a restart
+     * whose records were not restored.
+     */
+    public void resumeAfter(long id) {
+        lock.writeLock().lock();
+        try {
+            skipTo(id + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long oldestId() {
+        lock.readLock().lock();
+        try {
+            return firstId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long nextId() {
+        lock.readLock().lock();
+        try {
+            return nextId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Iterator<TrackerRecord> newestFirst(TrackerRecordQuery query) {
+        return new NewestFirstIterator(query);
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return (int) (nextId - firstId - skippedIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long evictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TrackerRecord appendLocked(LongFunction<TrackerRecord> factory, long now, boolean notifyListener) {
+        long id = nextId;
+        TrackerRecord record = factory.apply(id);
+        if (record.id() != id) {
+            throw new IllegalStateException("Record id " + record.id() + " does not match assigned id " + id);
+        }
+        if (notifyListener && appendListener != null) {
+            appendListener.appended(record, now);
+        }
+
+        Segment segment = segmentForWrite(id);
+        int slot = (int) (id - segment.baseId);
+        segment.records[slot] = record;
+        segment.timestamps[slot] = now;
+        index(applicationIndex, record.application(), id);
+        index(usernameIndex, record.username(), id);
+        index(activityIndex, record.activity(), id);
+
+        lastTimestamp = now;
+        nextId = id + 1;
+        return record;
+    }
+
+    /**
+     * Advances the id sequence to {@code id}, leaving empty slots for the ids in between. A store with
+     * nothing to keep, or a gap longer than the ring, just starts over at {@code id}.
+     */
+    private void skipTo(long id) {
+        if (id <= nextId) {
+            return;
+        }
+        if (firstId == nextId || id - nextId >= (long) segments.length * segmentSize) {
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i] != null) {
+                    evict(segments[i]);
+                    segments[i] = null;
+                }
+            }
+            firstId = id;
+            nextId = id;
+            skippedIds = 0;
+            return;
+        }
+
+        while (nextId < id) {
+            Segment segment = segmentForWrite(nextId);
+            segment.timestamps[(int) (nextId - segment.baseId)] = lastTimestamp;
+            skippedIds++;
+            nextId++;
+        }
+    }
+
+    private Segment segmentForWrite(long id) {
+        long baseId = id - id % segmentSize;
+        int index = ringIndex(baseId);
+        Segment segment = segments[index];
+        if (segment != null && segment.baseId == baseId) {
+            return segment;
+        }
+
+        if (segment != null) {
+            evict(segment);
+        }
+        segment = new Segment(baseId, segmentSize);
+        segments[index] = segment;
+        return segment;
+    }
+
+    private void evictExpired(long now) {
+        if (retentionMillis <= 0L) {
+            return;
+        }
+
+        long cutoff = now - retentionMillis;
+        while (firstId < nextId) {
+            int index = ringIndex(firstId - firstId % segmentSize);
+            Segment oldest = segments[index];
+            long newestIdInSegment = Math.min(nextId, oldest.baseId + segmentSize) - 1;
+            if (oldest.timestamps[(int) (newestIdInSegment - oldest.baseId)] >= cutoff) {
+                return;
+            }
+            evict(oldest);
+            segments[index] = null;
+        }
+    }
+
+    private void evict(Segment segment) {
+        long end = Math.min(nextId, segment.baseId + segmentSize);
+        long start = Math.max(firstId, segment.baseId);
+        for (long id = start; id < end; id++) {
+            TrackerRecord record = segment.records[(int) (id - segment.baseId)];
+            if (record == null) {
+                skippedIds--;
+                continue;
+            }
+            unindex(applicationIndex, record.application());
+            unindex(usernameIndex, record.username());
+            unindex(activityIndex, record.activity());
+            evictions++;
+        }
+        firstId = Math.max(firstId, end);
+    }
+
+    private static void index(Map<String, IdList> index, String key, long id) {
+        index.computeIfAbsent(key, ignored -> new IdList()).add(id);
+    }
+
+    private static void unindex(Map<String, IdList> index, String key) {
+        IdList ids = index.get(key);
+        ids.removeOldest();
+        if (ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private int ringIndex(long baseId) {
+        return (int) ((baseId / segmentSize) % segments.length);
+    }
+
+    private Segment segmentFor(long id) {
+        return segments[ringIndex(id - id % segmentSize)];
+    }
+
+    private long timestampOf(long id) {
+        Segment segment = segmentFor(id);
+        return segment.timestamps[(int) (id - segment.baseId)];
+    }
+
+    private long firstIdAtOrAfter(long timestamp) {
+        long low = firstId;
+        long high = nextId;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestampOf(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long cutoffTimestamp(TrackerRecordQuery query) {
+        long cutoff = retentionMillis <= 0L ? Long.MIN_VALUE : clock.millis() - retentionMillis;
+        return query.from() == null ? cutoff : Math.max(cutoff, query.from().toEpochMilli());
+    }
+
+    /**
+     * Picks the smallest index list among the filtered fields, or {@code null} for a plain segment scan.
+     * Returns an empty list when a filtered key has never been seen.
+     */
+    private IdList selectIndex(TrackerRecordQuery query) {
+        IdList selected = null;
+        for (IdList candidate : new IdList[] {
+            lookup(applicationIndex, query.application()),
+            lookup(usernameIndex, query.username()),
+            lookup(activityIndex, query.activity())
+        }) {
+            if (candidate != null && (selected == null || candidate.size < selected.size)) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private static IdList lookup(Map<String, IdList> index, String key) {
+        if (key == null) {
+            return null;
+        }
+        return index.getOrDefault(key, IdList.EMPTY);
+    }
+
+    /**
+     * Called under the store's write lock for every appended record, in id order, before the record
+     * becomes visible. If the listener throws, the record is not stored.
+     */
+    public interface AppendListener {
+
+        void appended(TrackerRecord record, long timestamp);
+    }
+
+    private static final class Segment {
+
+        private final long baseId;
+        private final TrackerRecord[] records;
+        private final long[] timestamps;
+
+        private Segment(long baseId, int size) {
+            this.baseId = baseId;
+            this.records = new TrackerRecord[size];
+            this.timestamps = new long[size];
+        }
+    }
+
+    /**
+     * Ascending record ids for one index key, kept in a growable circular buffer so that
+     * evicting the oldest id is O(1).
+     */
+    private static final class IdList {
+
+        private static final int MIN_CAPACITY = 8;
+
+        private static final IdList EMPTY = new IdList();
+
+        private long[] ids = new long[MIN_CAPACITY];
+        private int head;
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                resize(ids.length * 2);
+            }
+            ids[(head + size) % ids.length] = id;
+            size++;
+        }
+
+        void removeOldest() {
+            head = (head + 1) % ids.length;
+            size--;
+            if (ids.length > MIN_CAPACITY && size < ids.length / 4) {
+                resize(ids.length / 2);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long get(int position) {
+            return ids[(head + position) % ids.length];
+        }
+
+        int countBelow(long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (get(middle) < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void resize(int capacity) {
+            long[] resized = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                resized[i] = get(i);
+            }
+            ids = resized;
+            head = 0;
+        }
+    }
+
+    private final class NewestFirstIterator implements Iterator<TrackerRecord> {
+
+        private final TrackerRecordQuery query;
+        private final List<TrackerRecord> buffer = new ArrayList<>();
+        private int bufferPosition;
+        private int remaining;
+        private long before;
+        private boolean started;
+        private boolean exhausted;
+
+        private NewestFirstIterator(TrackerRecordQuery query) {
+            this.query = query;
+            this.remaining = query.limit();
+            this.before = query.before() == null ? Long.MAX_VALUE : query.before();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (bufferPosition < buffer.size()) {
+                return true;
+            }
+
+            buffer.clear();
+            bufferPosition = 0;
+            // A chunk can come back empty when the scan budget ran out before anything matched.
+            while (buffer.isEmpty() && !exhausted && remaining > 0) {
+                int chunkSize = Math.min(READ_CHUNK_SIZE, remaining);
+                lock.readLock().lock();
+                try {
+                    if (!started) {
+                        started = true;
+                        if (query.to() != null) {
+                            before = Math.min(before, firstIdAtOrAfter(query.to().toEpochMilli()));
+                        }
+                    }
+                    fill(chunkSize);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+
+            remaining -= buffer.size();
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public TrackerRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.get(bufferPosition++);
+        }
+
+        /**
+         * Collects up to {@code chunkSize} matches below {@code before}, examining at most
+         * {@value #MAX_SCANNED_PER_CHUNK} entries, and moves {@code before} to the last id examined.
+         */
+        private void fill(int chunkSize) {
+            long cutoff = cutoffTimestamp(query);
+            IdList ids = selectIndex(query);
+            int scanned = 0;
+            if (ids == null) {
+                long id = Math.min(before, nextId) - 1;
+                for (; id >= firstId && buffer.size() < chunkSize && scanned < MAX_SCANNED_PER_CHUNK; id--, scanned++) {
+                    if (!collect(id, cutoff)) {
+                        exhausted = true;
+                        return;
+                    }
+                }
+                before = id + 1;
+                exhausted = id < firstId;
+                return;
+            }
+
+            int position = ids.countBelow(before) - 1;
+            for (; position >= 0 && buffer.size() < chunkSize && scanned < MAX_SCANNED_PER_CHUNK; position--, scanned++) {
+                long id = ids.get(position);
+                if (!collect(id, cutoff)) {
+                    exhausted = true;
+                    return;
+                }
+                before = id;
+            }
+            exhausted = position < 0;
+        }
+
+        private boolean collect(long id, long cutoff) {
+            Segment segment = segmentFor(id);
+            int slot = (int) (id - segment.baseId);
+            if (segment.timestamps[slot] < cutoff) {
+                return false;
+            }
+            TrackerRecord record = segment.records[slot];
+            if (record != null && query.matches(record)) {
+                buffer.add(record);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hyperskill.tracker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TrackerBatchItemResult(
+    int index,
+    int status,
+    TrackerRecord record,
+    String error
+) {
+
+    public static TrackerBatchItemResult created(int index, TrackerRecord record) {
+        return new TrackerBatchItemResult(index, 201, record, null);
+    }
+
+    public static TrackerBatchItemResult rejected(int index, String error) {
+        return new TrackerBatchItemResult(index, 400, null, error);
+    }
+}
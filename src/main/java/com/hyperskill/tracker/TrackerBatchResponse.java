@@ -0,0 +1,10 @@
+package com.hyperskill.tracker;
+
+import java.util.List;
+
+public record TrackerBatchResponse(
+    int accepted,
+    int rejected,
+    List<TrackerBatchItemResult> results
+) {
+}
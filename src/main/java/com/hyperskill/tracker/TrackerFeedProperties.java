@@ -0,0 +1,15 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "tracker.feed")
+public record TrackerFeedProperties(
+    @DefaultValue("256") int bufferSize,
+    @DefaultValue("2") int dispatchThreads,
+    @DefaultValue("30m") Duration timeout,
+    @DefaultValue("10s") Duration sendTimeout
+) {
+}
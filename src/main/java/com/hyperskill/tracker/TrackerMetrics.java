@@ -0,0 +1,85 @@
+package com.hyperskill.tracker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for the tracker request path, served by {@code /actuator/metrics}. Per-endpoint latency comes
+ * from Spring MVC's own {@code http.server.requests} timer; this class adds what it cannot see.
+ * <p>
+ * Meters used on the hot path are resolved once and kept in fields, so recording is an adder increment
+ * with no registry lookup. Store size, evictions and API key cache counts are read from their owners
+ * only when the metrics are scraped.
+ */
+@Component
+public class TrackerMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer knownKeyLookups;
+    private final Timer unknownKeyLookups;
+    private final Counter recordsIngested;
+    private final Counter recordsRejected;
+    private final ConcurrentMap<String, Counter> rateLimitRejections = new ConcurrentHashMap<>();
+
+    public TrackerMetrics(MeterRegistry registry, TrackerRecordStore records, ApiKeyCache apiKeyCache) {
+        this.registry = registry;
+        this.knownKeyLookups = lookupTimer(registry, "known");
+        this.unknownKeyLookups = lookupTimer(registry, "unknown");
+        this.recordsIngested = Counter.builder("tracker.records.ingested")
+            .description("Tracker records stored")
+            .register(registry);
+        this.recordsRejected = Counter.builder("tracker.records.rejected")
+            .description("Batch items rejected by validation")
+            .register(registry);
+
+        Gauge.builder("tracker.store.size", records, TrackerRecordStore::approximateSize)
+            .description("Tracker records currently held by the store")
+            .register(registry);
+        FunctionCounter.builder("tracker.store.evictions", records, TrackerRecordStore::evictions)
+            .description("Tracker records dropped for capacity or retention")
+            .register(registry);
+        FunctionCounter.builder("tracker.api_key_cache.requests", apiKeyCache, cache -> cache.stats().hits())
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("tracker.api_key_cache.requests", apiKeyCache, cache -> cache.stats().negativeHits())
+            .tag("result", "negative_hit")
+            .register(registry);
+        FunctionCounter.builder("tracker.api_key_cache.requests", apiKeyCache, cache -> cache.stats().misses())
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    public void apiKeyLookup(boolean known, long nanos) {
+        (known ? knownKeyLookups : unknownKeyLookups).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rateLimited(String category) {
+        rateLimitRejections.computeIfAbsent(category, key -> Counter.builder("tracker.rate_limit.rejections")
+            .description("Tracker requests rejected by the rate limiter")
+            .tag("category", key)
+            .register(registry)
+        ).increment();
+    }
+
+    public void ingested(int accepted, int rejected) {
+        recordsIngested.increment(accepted);
+        if (rejected > 0) {
+            recordsRejected.increment(rejected);
+        }
+    }
+
+    private static Timer lookupTimer(MeterRegistry registry, String result) {
+        return Timer.builder("tracker.auth.lookup")
+            .description("API key authentication, including the cache and any database lookup")
+            .tag("result", result)
+            .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.hyperskill.tracker;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Rate limit policies keyed by application category. Categories without a policy are not limited.
+ * {@code lease-size} is only used by the JDBC backend: the number of tokens a node takes from the shared
+ * bucket in one round trip.
+ */
+@ConfigurationProperties(prefix = "tracker.rate-limit")
+public record TrackerRateLimitProperties(
+    @DefaultValue("memory") Backend backend,
+    @DefaultValue("10m") Duration idleTimeout,
+    @DefaultValue("10") int leaseSize,
+    Map<String, RateLimitPolicy> policies
+) {
+
+    public TrackerRateLimitProperties {
+        policies = policies == null ? Map.of() : policies.entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(
+                entry -> entry.getKey().toLowerCase(Locale.ROOT),
+                Map.Entry::getValue
+            ));
+    }
+
+    public RateLimitPolicy policyFor(String category) {
+        return category == null ? null : policies.get(category.toLowerCase(Locale.ROOT));
+    }
+
+    public enum Backend {
+        MEMORY,
+        JDBC
+    }
+}
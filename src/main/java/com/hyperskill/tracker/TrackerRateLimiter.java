@@ -1,42 +1,38 @@
 package com.hyperskill.tracker;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.time.Clock;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * Applies the configured {@link RateLimitPolicy} of an application's category, keeping the limiter state
+ * in the configured {@link RateLimitBackend}.
+ */
 @Component
 public class TrackerRateLimiter {
 
-    private static final long MIN_INTERVAL_MILLIS = 1_000L;
+    private final TrackerRateLimitProperties properties;
+    private final RateLimitBackend backend;
+    private final Clock clock;
 
-    private final ConcurrentMap<Long, AtomicLong> lastRequestTimes = new ConcurrentHashMap<>();
+    @Autowired
+    public TrackerRateLimiter(TrackerRateLimitProperties properties, RateLimitBackend backend) {
+        this(properties, backend, Clock.systemUTC());
+    }
 
-    public boolean tryAcquire(Application application) {
-        if (!isBasicCategory(application)) {
-            return true;
-        }
+    TrackerRateLimiter(TrackerRateLimitProperties properties, RateLimitBackend backend, Clock clock) {
+        this.properties = properties;
+        this.backend = backend;
+        this.clock = clock;
+    }
 
-        long now = System.currentTimeMillis();
-        AtomicLong lastRequest = lastRequestTimes.computeIfAbsent(
-            application.getId(),
-            ignored -> new AtomicLong(0L)
-        );
-
-        while (true) {
-            long previous = lastRequest.get();
-            if (previous > 0L && now - previous < MIN_INTERVAL_MILLIS) {
-                return false;
-            }
-
-            if (lastRequest.compareAndSet(previous, now)) {
-                return true;
-            }
+    public RateLimitDecision tryAcquire(ApplicationSnapshot application) {
+        RateLimitPolicy policy = properties.policyFor(application.category());
+        if (policy == null) {
+            return RateLimitDecision.UNLIMITED;
         }
-    }
 
-    private boolean isBasicCategory(Application application) {
-        return "basic".equalsIgnoreCase(application.getCategory());
+        return backend.tryAcquire(application.id(), policy, clock.millis());
     }
 }
@@ -0,0 +1,116 @@
+package com.hyperskill.tracker;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads tracker record uploads in a fixed binary layout, an alternative to JSON for devices that ingest
+ * at high rates. All integers are big-endian:
+ * <pre>
+ * record = username activity duration:int32 calories:int32
+ * string = length:int16 utf8-bytes    (length -1 encodes null)
+ * batch  = count:int32 record{count}
+ * </pre>
+ * A single upload is one record and a batch upload is a {@code TrackerRecordRequest[]}. Fields are read
+ * straight from the request stream into the request record, and decoded requests go through the same
+ * validation as JSON ones. A body that does not match the layout exactly, including trailing bytes, is
+ * rejected as a whole with 400.
+ */
+@Component
+public class TrackerRecordBinaryConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-tracker-record";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final int maxBatchSize;
+
+    public TrackerRecordBinaryConverter() {
+        this(FitnessTrackerController.MAX_BATCH_SIZE);
+    }
+
+    TrackerRecordBinaryConverter(int maxBatchSize) {
+        super(MEDIA_TYPE);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TrackerRecordRequest.class || clazz == TrackerRecordRequest[].class;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        // Buffered because DataInputStream reads each int one byte at a time from the servlet stream.
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputMessage.getBody()));
+        Object result;
+        try {
+            if (clazz == TrackerRecordRequest.class) {
+                result = readRecord(input);
+            } else {
+                int count = input.readInt();
+                if (count < 0) {
+                    throw new HttpMessageNotReadableException("Negative tracker record count " + count, inputMessage);
+                }
+                if (count > maxBatchSize) {
+                    throw new HttpMessageNotReadableException(
+                        "Batch of " + count + " records exceeds the limit of " + maxBatchSize, inputMessage);
+                }
+                TrackerRecordRequest[] requests = new TrackerRecordRequest[count];
+                for (int i = 0; i < count; i++) {
+                    requests[i] = readRecord(input);
+                }
+                result = requests;
+            }
+        } catch (EOFException e) {
+            throw new HttpMessageNotReadableException("Truncated tracker record body", e, inputMessage);
+        }
+
+        if (input.read() != -1) {
+            throw new HttpMessageNotReadableException("Unexpected bytes after tracker record body", inputMessage);
+        }
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Tracker record binary format is read-only");
+    }
+
+    private static TrackerRecordRequest readRecord(DataInputStream input) throws IOException {
+        String username = readString(input);
+        String activity = readString(input);
+        int duration = input.readInt();
+        int calories = input.readInt();
+        return new TrackerRecordRequest(username, activity, duration, calories);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        short length = input.readShort();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hyperskill.tracker;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Row form of a {@link TrackerRecord}. Ids are assigned by {@link JpaTrackerRecordStore} from a database
+ * sequence before the row is written, so inserts can be JDBC-batched.
+ */
+@Entity
+@Table(
+    name = "tracker_records",
+    indexes = {
+        @Index(name = "idx_tracker_records_application_id", columnList = "application_id, id DESC"),
+        @Index(name = "idx_tracker_records_username_id", columnList = "username, id DESC")
+    }
+)
+public class TrackerRecordEntity {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "application_id", nullable = false)
+    private Application application;
+
+    private String username;
+
+    private String activity;
+
+    @Column(nullable = false)
+    private int duration;
+
+    @Column(nullable = false)
+    private int calories;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    protected TrackerRecordEntity() {
+        // JPA requirement
+    }
+
+    public TrackerRecordEntity(TrackerRecord record, Application application, Instant createdAt) {
+        this.id = record.id();
+        this.application = application;
+        this.username = record.username();
+        this.activity = record.activity();
+        this.duration = record.duration();
+        this.calories = record.calories();
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Application getApplication() {
+        return application;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getActivity() {
+        return activity;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
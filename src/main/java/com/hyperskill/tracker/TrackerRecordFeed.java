@@ -0,0 +1,307 @@
+package com.hyperskill.tracker;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes newly created tracker records to Server-Sent Events subscribers of the same application.
+ * <p>
+ * Publishing never blocks on a subscriber: each one has a queue of {@code buffer-size} records that a
+ * small dispatch pool drains into its connection, and a subscriber whose queue is full is disconnected
+ * instead of holding up ingest. Event ids are record ids, so a client reconnecting with
+ * {@code Last-Event-ID} is first sent the records it missed, up to one buffer's worth of the newest.
+ * Records are published after they are stored, so concurrent ingest can publish them out of id order; a
+ * subscriber gets each one once, but not necessarily in id order.
+ * <p>
+ * A send that takes longer than {@code send-timeout}, typically on a client that stopped reading, gets
+ * its subscriber dropped, and the pool gets an extra thread until that send returns, so the stuck write
+ * holds up neither publishing nor the other subscribers. The connection itself is completed once the
+ * write gives up. With {@code spring.threads.virtual.enabled} the pool is replaced by a virtual thread per
+ * drain, which needs no extra thread.
+ */
+@Component
+@EnableConfigurationProperties(TrackerFeedProperties.class)
+public class TrackerRecordFeed {
+
+    static final String EVENT_NAME = "record";
+
+    private static final int IDLE = 0;
+    private static final int SENDING = 1;
+    private static final int SEND_EXPIRED = 2;
+
+    private final TrackerRecordStore records;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Executor dispatcher;
+    private final ScheduledExecutorService watchdog;
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TrackerRecordFeed(TrackerRecordStore records, TrackerFeedProperties properties, Environment environment) {
+        this(records, properties, newDispatcher(properties.dispatchThreads(), Threading.VIRTUAL.isActive(environment)));
+    }
+
+    TrackerRecordFeed(TrackerRecordStore records, TrackerFeedProperties properties, Executor dispatcher) {
+        if (properties.bufferSize() < 1) {
+            throw new IllegalArgumentException("Feed buffer size must be positive");
+        }
+
+        this.records = records;
+        this.bufferSize = properties.bufferSize();
+        this.timeoutMillis = properties.timeout().toMillis();
+        this.sendTimeoutNanos = properties.sendTimeout().toNanos();
+        this.dispatcher = dispatcher;
+
+        long checkMillis = Math.max(10L, properties.sendTimeout().toMillis() / 4);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracker-feed-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.scheduleWithFixedDelay(this::expireSlowSends, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String application, Long lastEventId) {
+        return subscribe(application, lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String application, Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(application, emitter, lastEventId == null ? 0L : lastEventId);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.computeIfAbsent(application, ignored -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        // Registered before reading the store, so a record created meanwhile is either replayed or queued.
+        if (lastEventId != null) {
+            for (TrackerRecord record : missedRecords(application, lastEventId)) {
+                if (!subscriber.send(record)) {
+                    return emitter;
+                }
+                subscriber.replayed.add(record.id());
+            }
+        }
+        subscriber.ready.set(true);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public void publish(TrackerRecord record) {
+        Set<Subscriber> applicationSubscribers = subscribers.get(record.application());
+        if (applicationSubscribers == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : applicationSubscribers) {
+            if (subscriber.queue.offer(record)) {
+                schedule(subscriber);
+            } else {
+                drop(subscriber);
+            }
+        }
+    }
+
+    int subscriberCount(String application) {
+        Set<Subscriber> applicationSubscribers = subscribers.get(application);
+        return applicationSubscribers == null ? 0 : applicationSubscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        watchdog.shutdownNow();
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private Deque<TrackerRecord> missedRecords(String application, long lastEventId) {
+        Deque<TrackerRecord> missed = new ArrayDeque<>();
+        TrackerRecordQuery query = new TrackerRecordQuery(application, null, null, null, null, null, bufferSize);
+        Iterator<TrackerRecord> newestFirst = records.newestFirst(query);
+        while (newestFirst.hasNext()) {
+            TrackerRecord record = newestFirst.next();
+            if (record.id() <= lastEventId) {
+                break;
+            }
+            missed.addFirst(record);
+        }
+        return missed;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.ready.get()
+            && (subscriber.dropped || !subscriber.queue.isEmpty())
+            && subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Sends the queued records. A dropped subscriber's emitter is completed here rather than by whoever
+     * dropped it, since completing waits for a send in progress on the same emitter to return.
+     */
+    private void drain(Subscriber subscriber) {
+        TrackerRecord record;
+        while (!subscriber.dropped && (record = subscriber.queue.poll()) != null) {
+            if (subscriber.alreadySent(record)) {
+                continue;
+            }
+            if (!subscriber.send(record)) {
+                return;
+            }
+        }
+        if (subscriber.dropped) {
+            // Left marked as draining, so it is never scheduled again.
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.draining.set(false);
+        schedule(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.dropped = true;
+        subscriber.queue.clear();
+        schedule(subscriber);
+    }
+
+    private void expireSlowSends() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> applicationSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : applicationSubscribers) {
+                if (subscriber.ready.get()
+                    && subscriber.sendState.get() == SENDING
+                    && now - subscriber.sendStartedAt > sendTimeoutNanos) {
+                    // Grown before the state changes, so the shrink when the send returns always follows it.
+                    resizeDispatcher(1);
+                    if (subscriber.sendState.compareAndSet(SENDING, SEND_EXPIRED)) {
+                        drop(subscriber);
+                    } else {
+                        resizeDispatcher(-1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces a pool thread stuck in an expired send, or gives it back once the send returns. A virtual
+     * thread dispatcher has no pool to resize.
+     */
+    private void resizeDispatcher(int delta) {
+        if (!(dispatcher instanceof ThreadPoolExecutor pool)) {
+            return;
+        }
+
+        synchronized (pool) {
+            if (delta > 0) {
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            } else {
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.application, (ignored, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static Executor newDispatcher(int threads, boolean virtual) {
+        if (virtual) {
+            // One virtual thread per drain, so a subscriber stuck on a slow socket never holds up the others.
+            return new VirtualThreadTaskExecutor("tracker-feed-");
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "tracker-feed-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final String application;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TrackerRecord> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean ready = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+        private final long resumeAfterId;
+        // Written while replaying, before ready is set; only read by drains afterwards.
+        private final Set<Long> replayed = new HashSet<>();
+        private volatile long sendStartedAt;
+        private volatile boolean dropped;
+
+        private Subscriber(String application, SseEmitter emitter, long resumeAfterId) {
+            this.application = application;
+            this.emitter = emitter;
+            this.resumeAfterId = resumeAfterId;
+        }
+
+        /**
+         * A queued record may also have been replayed from the store, or be one the client had before
+         * reconnecting. Anything else is sent even if a newer id already went out.
+         */
+        private boolean alreadySent(TrackerRecord record) {
+            return record.id() <= resumeAfterId || replayed.contains(record.id());
+        }
+
+        private boolean send(TrackerRecord record) {
+            sendStartedAt = System.nanoTime();
+            sendState.set(SENDING);
+            try {
+                emitter.send(SseEmitter.event()
+                    .id(Long.toString(record.id()))
+                    .name(EVENT_NAME)
+                    .data(record, MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                emitter.completeWithError(e);
+                return false;
+            } finally {
+                if (sendState.getAndSet(IDLE) == SEND_EXPIRED) {
+                    resizeDispatcher(-1);
+                }
+            }
+        }
+    }
+}
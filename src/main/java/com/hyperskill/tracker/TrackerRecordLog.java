@@ -0,0 +1,346 @@
+package com.hyperskill.tracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of tracker records split into fixed-size, memory-mapped segment files.
+ * <p>
+ * Each entry is framed as {@code [payload length][CRC32C][payload]}. A zero length marks the unused,
+ * zero-filled tail of a segment; a short or corrupt frame marks a write torn by a crash, and recovery
+ * stops reading that segment there. Segment files are named after the first record id they hold. A torn
+ * frame inside an older segment leaves a gap in the ids; recovery logs it and carries on with the next
+ * segment. {@link #highestId()} then covers every id any segment was started for, including the
+ * {@code .quarantined} segments earlier versions set aside at such gaps, so ids handed out before a crash
+ * are never assigned again. Compaction always keeps the newest segment for the same reason.
+ * <p>
+ * Appends only copy bytes into the mapping; {@link #force()} makes them durable. The class is thread-safe,
+ * but callers are expected to append in id order.
+ */
+public class TrackerRecordLog implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "tracker-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String QUARANTINE_SUFFIX = ".quarantined";
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrackerRecordLog.class);
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<SegmentFile> closedSegments = new ArrayList<>();
+    private final ByteBuffer scratch;
+
+    private SegmentFile activeSegment;
+    private long lastWrittenId;
+    private long highestId;
+    private long durableId;
+
+    public TrackerRecordLog(Path directory, int segmentBytes) {
+        if (segmentBytes < 4_096) {
+            throw new IllegalArgumentException("Log segments must be at least 4096 bytes");
+        }
+
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.scratch = ByteBuffer.allocate(FRAME_HEADER_BYTES + maxPayloadBytes());
+    }
+
+    /**
+     * Reads every intact entry in id order and hands it to {@code consumer}. Ids may skip where a torn
+     * frame cut a segment short. Must be called once, before the first append.
+     */
+    public synchronized void recover(RecordConsumer consumer) {
+        try {
+            Files.createDirectories(directory);
+            for (Path path : listSegmentFiles(SEGMENT_SUFFIX + QUARANTINE_SUFFIX)) {
+                SegmentFile segment = new SegmentFile(path, firstIdOf(path, SEGMENT_SUFFIX + QUARANTINE_SUFFIX));
+                readSegment(segment, (record, timestamp) -> { });
+                highestId = Math.max(highestId, Math.max(segment.firstId, segment.lastId));
+            }
+
+            for (Path path : listSegmentFiles(SEGMENT_SUFFIX)) {
+                SegmentFile segment = new SegmentFile(path, firstIdOf(path, SEGMENT_SUFFIX));
+                if (lastWrittenId > 0 && segment.firstId != lastWrittenId + 1) {
+                    LOGGER.warn("Tracker record log has a gap after id {}; resuming at {}",
+                        lastWrittenId, path.getFileName());
+                }
+                readSegment(segment, consumer);
+                // Kept even when empty: the name alone records that its first id was handed out.
+                closedSegments.add(segment);
+                lastWrittenId = Math.max(lastWrittenId, segment.lastId);
+                highestId = Math.max(highestId, Math.max(segment.firstId, segment.lastId));
+            }
+            durableId = lastWrittenId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover tracker record log in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the highest record id the log has seen, whether or not it could be read back. New records
+     * must be given higher ids.
+     */
+    public synchronized long highestId() {
+        return Math.max(highestId, lastWrittenId);
+    }
+
+    public synchronized void append(TrackerRecord record, long timestamp) {
+        scratch.clear();
+        scratch.position(FRAME_HEADER_BYTES);
+        encode(record, timestamp, scratch);
+        int payloadLength = scratch.position() - FRAME_HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(scratch.array(), FRAME_HEADER_BYTES, payloadLength);
+        scratch.putInt(0, payloadLength);
+        scratch.putInt(Integer.BYTES, (int) crc.getValue());
+        scratch.flip();
+        if (scratch.remaining() + Integer.BYTES > segmentBytes) {
+            throw new IllegalArgumentException(
+                "Tracker record " + record.id() + " does not fit in a " + segmentBytes + " byte log segment");
+        }
+
+        try {
+            if (activeSegment == null || activeSegment.buffer.remaining() < scratch.remaining() + Integer.BYTES) {
+                roll(record.id());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open a new tracker record log segment", e);
+        }
+
+        activeSegment.buffer.put(scratch);
+        activeSegment.lastId = record.id();
+        activeSegment.lastTimestamp = timestamp;
+        lastWrittenId = record.id();
+    }
+
+    /**
+     * Flushes everything appended so far to disk and returns the id of the newest durable record.
+     */
+    public long force() {
+        SegmentFile segment;
+        long writtenId;
+        synchronized (this) {
+            segment = activeSegment;
+            writtenId = lastWrittenId;
+        }
+
+        // Forcing outside the lock lets appenders keep copying into the mapping while the disk catches up.
+        if (segment != null) {
+            segment.buffer.force();
+        }
+
+        synchronized (this) {
+            durableId = Math.max(durableId, writtenId);
+            return durableId;
+        }
+    }
+
+    public synchronized long lastWrittenId() {
+        return lastWrittenId;
+    }
+
+    public synchronized long durableId() {
+        return durableId;
+    }
+
+    /**
+     * Deletes closed segments whose newest record is older than {@code oldestTimestamp} or whose ids all
+     * fall below {@code oldestId}. The newest segment, active or not, is never deleted, so the next
+     * recovery still knows where the ids stopped.
+     */
+    public synchronized int compact(long oldestId, long oldestTimestamp) {
+        int deleted = 0;
+        while (closedSegments.size() > (activeSegment == null ? 1 : 0)) {
+            SegmentFile oldest = closedSegments.get(0);
+            if (oldest.lastId >= oldestId && oldest.lastTimestamp >= oldestTimestamp) {
+                break;
+            }
+
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete tracker record log segment " + oldest.path, e);
+            }
+            closedSegments.remove(0);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public synchronized int segmentCount() {
+        return closedSegments.size() + (activeSegment == null ? 0 : 1);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (activeSegment != null) {
+            activeSegment.buffer.force();
+            durableId = lastWrittenId;
+            closedSegments.add(activeSegment);
+            activeSegment = null;
+        }
+    }
+
+    private void roll(long firstId) throws IOException {
+        if (activeSegment != null) {
+            activeSegment.buffer.force();
+            durableId = Math.max(durableId, activeSegment.lastId);
+            closedSegments.add(activeSegment);
+        }
+
+        Files.createDirectories(directory);
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstId, SEGMENT_SUFFIX));
+        SegmentFile segment = new SegmentFile(path, firstId);
+        try (FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )) {
+            // The mapping stays valid after the channel is closed.
+            segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        activeSegment = segment;
+    }
+
+    private List<Path> listSegmentFiles(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(suffix);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long firstIdOf(Path path, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - suffix.length()));
+    }
+
+    private static void readSegment(SegmentFile segment, RecordConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            readEntries(buffer, segment, consumer);
+        }
+    }
+
+    private static void readEntries(ByteBuffer buffer, SegmentFile segment, RecordConsumer consumer) {
+        while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+            int payloadLength = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (payloadLength <= 0 || payloadLength > buffer.remaining()) {
+                return;
+            }
+
+            ByteBuffer payload = buffer.slice(buffer.position(), payloadLength);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+
+            buffer.position(buffer.position() + payloadLength);
+            long timestamp;
+            TrackerRecord record;
+            try {
+                timestamp = payload.getLong();
+                record = decode(payload);
+            } catch (BufferUnderflowException e) {
+                return;
+            }
+
+            consumer.accept(record, timestamp);
+            segment.lastId = record.id();
+            segment.lastTimestamp = timestamp;
+        }
+    }
+
+    private static void encode(TrackerRecord record, long timestamp, ByteBuffer buffer) {
+        buffer.putLong(timestamp);
+        buffer.putLong(record.id());
+        buffer.putInt(record.duration());
+        buffer.putInt(record.calories());
+        putString(buffer, record.application());
+        putString(buffer, record.username());
+        putString(buffer, record.activity());
+    }
+
+    private static TrackerRecord decode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        int duration = buffer.getInt();
+        int calories = buffer.getInt();
+        String application = getString(buffer);
+        String username = getString(buffer);
+        String activity = getString(buffer);
+        return new TrackerRecord(id, application, username, activity, duration, calories);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Tracker record field exceeds " + MAX_STRING_BYTES + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int maxPayloadBytes() {
+        return Long.BYTES * 2 + Integer.BYTES * 2 + 3 * (Short.BYTES + MAX_STRING_BYTES);
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+
+        void accept(TrackerRecord record, long timestamp);
+    }
+
+    private static final class SegmentFile {
+
+        private final Path path;
+        private final long firstId;
+        private MappedByteBuffer buffer;
+        private long lastId;
+        private long lastTimestamp;
+
+        private SegmentFile(Path path, long firstId) {
+            this.path = path;
+            this.firstId = firstId;
+            this.lastId = firstId - 1;
+        }
+    }
+}
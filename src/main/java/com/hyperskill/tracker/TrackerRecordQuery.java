@@ -0,0 +1,36 @@
+package com.hyperskill.tracker;
+
+import java.time.Instant;
+
+/**
+ * Filters for a newest-first tracker record listing. Null fields are not filtered on; {@code from} is
+ * inclusive, {@code to} and {@code before} (a record id cursor) are exclusive.
+ */
+public record TrackerRecordQuery(
+    String application,
+    String username,
+    String activity,
+    Instant from,
+    Instant to,
+    Long before,
+    int limit
+) {
+
+    public static TrackerRecordQuery all() {
+        return new TrackerRecordQuery(null, null, null, null, null, null, Integer.MAX_VALUE);
+    }
+
+    public static TrackerRecordQuery byApplication(String application) {
+        return new TrackerRecordQuery(application, null, null, null, null, null, Integer.MAX_VALUE);
+    }
+
+    public static TrackerRecordQuery byUsername(String username) {
+        return new TrackerRecordQuery(null, username, null, null, null, null, Integer.MAX_VALUE);
+    }
+
+    public boolean matches(TrackerRecord record) {
+        return (application == null || application.equals(record.application()))
+            && (username == null || username.equals(record.username()))
+            && (activity == null || activity.equals(record.activity()));
+    }
+}
@@ -1,4 +1,13 @@
 package com.hyperskill.tracker;
 
-public record TrackerRecordRequest(String username, String activity, int duration, int calories) {
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+public record TrackerRecordRequest(
+    @NotBlank @Size(max = 255) String username,
+    @NotBlank @Size(max = 255) String activity,
+    @PositiveOrZero int duration,
+    @PositiveOrZero int calories
+) {
 }
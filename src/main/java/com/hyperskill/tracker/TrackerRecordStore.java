@@ -0,0 +1,51 @@
+package com.hyperskill.tracker;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongFunction;
+
+public interface TrackerRecordStore {
+
+    /**
+     * Assigns the next record id, builds the record through {@code factory} and stores it.
+     * Ids are handed out in append order, so newer records always have larger ids.
+     */
+    TrackerRecord append(LongFunction<TrackerRecord> factory);
+
+    /**
+     * Appends all records under one acquisition of the store, so they receive one contiguous block of ids
+     * in list order.
+     */
+    List<TrackerRecord> appendAll(List<LongFunction<TrackerRecord>> factories);
+
+    Iterator<TrackerRecord> newestFirst(TrackerRecordQuery query);
+
+    default Iterator<TrackerRecord> newestFirst() {
+        return newestFirst(TrackerRecordQuery.all());
+    }
+
+    default Iterator<TrackerRecord> newestFirstByApplication(String application) {
+        return newestFirst(TrackerRecordQuery.byApplication(application));
+    }
+
+    default Iterator<TrackerRecord> newestFirstByUsername(String username) {
+        return newestFirst(TrackerRecordQuery.byUsername(username));
+    }
+
+    int size();
+
+    /**
+     * An estimate of {@link #size()} cheap enough to read on every metrics scrape. Stores whose
+     * {@code size()} has to ask a database keep it from their own counters instead.
+     */
+    default long approximateSize() {
+        return size();
+    }
+
+    /**
+     * Number of records dropped for capacity or retention since the store was created.
+     */
+    default long evictions() {
+        return 0L;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hyperskill.tracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes tracker records straight from a store iterator to the response body, either as one JSON array
+ * or as newline-delimited JSON. Output is flushed every {@value #FLUSH_INTERVAL} records so that the
+ * servlet container sends it as chunks instead of buffering the whole listing.
+ */
+@Component
+public class TrackerRecordStreamWriter {
+
+    private static final int FLUSH_INTERVAL = 128;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter recordWriter;
+
+    public TrackerRecordStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.recordWriter = objectMapper.writerFor(TrackerRecord.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void writeJsonArray(Iterator<TrackerRecord> records, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartArray();
+            int written = 0;
+            while (records.hasNext()) {
+                recordWriter.writeValue(generator, records.next());
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public void writeNdjson(Iterator<TrackerRecord> records, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            int written = 0;
+            while (records.hasNext()) {
+                recordWriter.writeValue(generator, records.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+}
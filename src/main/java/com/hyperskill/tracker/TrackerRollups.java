@@ -0,0 +1,224 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Running totals of tracker records by application, username, activity and UTC day.
+ * <p>
+ * Every record is added to all distinct combinations of its username, activity and day with the unused
+ * ones wildcarded, so any filter the stats endpoints accept is answered by a single map lookup. Day buckets
+ * older than {@code retention-days} are dropped when the first record of a new day arrives; the all-time
+ * buckets are kept. At most {@code max-user-buckets} buckets, day and all-time, are kept for individual
+ * usernames: a record that would need another one is still counted in the application-wide buckets, but
+ * its username's totals are no longer exact, so stats for that username are refused from then on rather
+ * than answered with a short count. On startup the totals are rebuilt from the records the store still
+ * holds.
+ */
+@Component
+@EnableConfigurationProperties(TrackerStatsProperties.class)
+public class TrackerRollups {
+
+    private final int retentionDays;
+    private final int maxUserBuckets;
+    private final Clock clock;
+    private final ConcurrentMap<Key, Totals> totals = new ConcurrentHashMap<>();
+    private final AtomicInteger userBuckets = new AtomicInteger();
+    private final Set<Key> incompleteUsernames = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean allUsernamesIncomplete;
+    private volatile LocalDate currentDay;
+
+    @Autowired
+    public TrackerRollups(TrackerStatsProperties properties, TrackerRecordStore records) {
+        this(properties, Clock.systemUTC());
+        rebuild(records);
+    }
+
+    TrackerRollups(TrackerStatsProperties properties, Clock clock) {
+        if (properties.retentionDays() < 1) {
+            throw new IllegalArgumentException("Stats retention must be at least one day");
+        }
+
+        this.retentionDays = properties.retentionDays();
+        this.maxUserBuckets = properties.maxUserBuckets();
+        this.clock = clock;
+    }
+
+    public void record(TrackerRecord record) {
+        add(record, today());
+    }
+
+    /**
+     * Adds the records {@code store} holds: those of the last {@code retention-days} days to their day and
+     * all-time buckets, older ones to the all-time buckets only.
+     */
+    void rebuild(TrackerRecordStore store) {
+        LocalDate today = today();
+        for (int offset = 0; offset < retentionDays; offset++) {
+            LocalDate day = today.minusDays(offset);
+            addAll(store, startOf(day), startOf(day.plusDays(1)), day);
+        }
+        addAll(store, null, startOf(today.minusDays(retentionDays - 1L)), null);
+    }
+
+    /**
+     * Returns the totals for the given filter, or an empty optional when {@code username} is set and some
+     * of its records could not be counted because the username buckets were full.
+     */
+    public Optional<TrackerStats> stats(String application, String username, String activity, LocalDate day) {
+        if (username != null
+            && (allUsernamesIncomplete || incompleteUsernames.contains(userKey(application, username)))) {
+            return Optional.empty();
+        }
+
+        Totals bucket = totals.get(new Key(application, username, activity, day));
+        if (bucket == null) {
+            return Optional.of(new TrackerStats(application, username, activity, day, 0L, 0L, 0L));
+        }
+        return Optional.of(new TrackerStats(
+            application,
+            username,
+            activity,
+            day,
+            bucket.count.sum(),
+            bucket.duration.sum(),
+            bucket.calories.sum()
+        ));
+    }
+
+    public int retentionDays() {
+        return retentionDays;
+    }
+
+    public LocalDate today() {
+        LocalDate today = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+        LocalDate previous = currentDay;
+        if (!today.equals(previous)) {
+            currentDay = today;
+            if (previous != null) {
+                LocalDate oldest = today.minusDays(retentionDays - 1L);
+                for (Key key : totals.keySet()) {
+                    if (key.day() != null && key.day().isBefore(oldest)) {
+                        totals.computeIfPresent(key, (expired, bucket) -> {
+                            if (expired.username() != null) {
+                                userBuckets.decrementAndGet();
+                            }
+                            return null;
+                        });
+                    }
+                }
+            }
+        }
+        return today;
+    }
+
+    int bucketCount() {
+        return totals.size();
+    }
+
+    /**
+     * Adds {@code record} to each distinct bucket it belongs to, or only to the all-time ones when
+     * {@code day} is null. A null username or activity already is the wildcard, so masking it again would
+     * count the record twice.
+     */
+    private void add(TrackerRecord record, LocalDate day) {
+        Key user = record.username() == null ? null : userKey(record.application(), record.username());
+        boolean exact = user == null || !allUsernamesIncomplete && !incompleteUsernames.contains(user);
+        for (int mask = 0; mask < 8; mask++) {
+            if ((mask & 1) != 0 && record.username() == null
+                || (mask & 2) != 0 && record.activity() == null
+                || (mask & 4) != 0 && day == null) {
+                continue;
+            }
+
+            Key key = new Key(
+                record.application(),
+                (mask & 1) == 0 ? record.username() : null,
+                (mask & 2) == 0 ? record.activity() : null,
+                (mask & 4) == 0 ? day : null
+            );
+            if (key.username() == null) {
+                totals.compute(key, (k, bucket) -> (bucket == null ? new Totals() : bucket).add(record));
+            } else if (exact && !addToUserBucket(key, record)) {
+                markIncomplete(user);
+                exact = false;
+            }
+        }
+    }
+
+    /**
+     * Adds {@code record} to a username bucket, creating it only while there is room, and returns whether
+     * it was counted. The bucket is created and updated inside {@code compute}, so a concurrent expiry of
+     * the same key cannot drop the addition.
+     */
+    private boolean addToUserBucket(Key key, TrackerRecord record) {
+        return totals.compute(key, (k, bucket) -> {
+            if (bucket == null) {
+                if (userBuckets.incrementAndGet() > maxUserBuckets) {
+                    userBuckets.decrementAndGet();
+                    return null;
+                }
+                bucket = new Totals();
+            }
+            return bucket.add(record);
+        }) != null;
+    }
+
+    /**
+     * Refuses stats for {@code user} from now on. The set of refused usernames is bounded by the same
+     * limit as the buckets; past it every username is refused.
+     */
+    private void markIncomplete(Key user) {
+        if (incompleteUsernames.size() < maxUserBuckets) {
+            incompleteUsernames.add(user);
+        } else {
+            allUsernamesIncomplete = true;
+        }
+    }
+
+    private static Key userKey(String application, String username) {
+        return new Key(application, username, null, null);
+    }
+
+    private void addAll(TrackerRecordStore store, Instant from, Instant to, LocalDate day) {
+        Iterator<TrackerRecord> records = store.newestFirst(
+            new TrackerRecordQuery(null, null, null, from, to, null, Integer.MAX_VALUE)
+        );
+        records.forEachRemaining(record -> add(record, day));
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private record Key(String application, String username, String activity, LocalDate day) {
+    }
+
+    private static final class Totals {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder duration = new LongAdder();
+        private final LongAdder calories = new LongAdder();
+
+        private Totals add(TrackerRecord record) {
+            count.increment();
+            duration.add(record.duration());
+            calories.add(record.calories());
+            return this;
+        }
+    }
+}
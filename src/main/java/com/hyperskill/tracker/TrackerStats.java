@@ -0,0 +1,21 @@
+package com.hyperskill.tracker;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Totals for one application, optionally narrowed to a username, an activity and a UTC day. Fields
+ * that were not filtered on are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TrackerStats(
+    String application,
+    String username,
+    String activity,
+    LocalDate day,
+    long count,
+    long duration,
+    long calories
+) {
+}
@@ -0,0 +1,11 @@
+package com.hyperskill.tracker;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "tracker.stats")
+public record TrackerStatsProperties(
+    @DefaultValue("90") int retentionDays,
+    @DefaultValue("100000") int maxUserBuckets
+) {
+}
@@ -0,0 +1,65 @@
+package com.hyperskill.tracker;
+
+import java.time.Clock;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(TrackerStoreProperties.class)
+public class TrackerStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracker.store.type", havingValue = "memory", matchIfMissing = true)
+    public TrackerRecordStore trackerRecordStore(TrackerStoreProperties properties) {
+        return new SegmentedTrackerRecordStore(
+            properties.capacity(),
+            properties.segmentSize(),
+            properties.retention(),
+            Clock.systemUTC()
+        );
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tracker.store.type", havingValue = "log")
+    public TrackerRecordStore durableTrackerRecordStore(TrackerStoreProperties properties) {
+        TrackerStoreProperties.Log log = properties.log();
+        return new DurableTrackerRecordStore(
+            new TrackerRecordLog(log.directory(), log.segmentBytes()),
+            properties.capacity(),
+            properties.segmentSize(),
+            properties.retention(),
+            Clock.systemUTC(),
+            log.fsyncPolicy(),
+            log.fsyncInterval(),
+            log.compactionInterval()
+        );
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tracker.store.type", havingValue = "jpa")
+    public TrackerRecordStore jpaTrackerRecordStore(
+        TrackerStoreProperties properties,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        JdbcTemplate jdbcTemplate
+    ) {
+        TrackerStoreProperties.Jpa jpa = properties.jpa();
+        return new JpaTrackerRecordStore(
+            entityManager,
+            new TransactionTemplate(transactionManager),
+            jdbcTemplate,
+            Clock.systemUTC(),
+            jpa.batchSize(),
+            jpa.maxPending(),
+            jpa.flushInterval()
+        );
+    }
+}
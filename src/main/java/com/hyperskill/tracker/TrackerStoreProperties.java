@@ -0,0 +1,46 @@
+package com.hyperskill.tracker;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sizing of the in-memory tracker record store. A zero retention keeps records until they are
+ * pushed out by capacity. With {@code type=log} records are also written to a segmented log under
+ * {@code log.directory} and replayed on startup; with {@code type=jpa} they are stored in the
+ * {@code tracker_records} table through a write-behind queue.
+ */
+@ConfigurationProperties(prefix = "tracker.store")
+public record TrackerStoreProperties(
+    @DefaultValue("memory") Type type,
+    @DefaultValue("100000") int capacity,
+    @DefaultValue("1024") int segmentSize,
+    @DefaultValue("0s") Duration retention,
+    @DefaultValue Log log,
+    @DefaultValue Jpa jpa
+) {
+
+    public enum Type {
+        MEMORY,
+        LOG,
+        JPA
+    }
+
+    public record Log(
+        @DefaultValue("data/tracker") Path directory,
+        @DefaultValue("67108864") int segmentBytes,
+        @DefaultValue("interval") DurableTrackerRecordStore.FsyncPolicy fsyncPolicy,
+        @DefaultValue("10ms") Duration fsyncInterval,
+        @DefaultValue("1m") Duration compactionInterval
+    ) {
+    }
+
+    public record Jpa(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("10000") int maxPending,
+        @DefaultValue("20ms") Duration flushInterval
+    ) {
+    }
+}
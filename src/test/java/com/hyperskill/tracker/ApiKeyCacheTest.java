@@ -0,0 +1,103 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ApiKeyCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final ApplicationRepository applicationRepository = mock(ApplicationRepository.class);
+
+    @Test
+    @DisplayName("Known keys are served from the cache until their TTL expires")
+    void knownKeysAreCachedUntilTtl() {
+        ApiKeyCache cache = newCache(10);
+        Application application = mock(Application.class);
+        when(application.getId()).thenReturn(1L);
+        when(application.getName()).thenReturn("App");
+        when(application.getCategory()).thenReturn("basic");
+        when(applicationRepository.findByApiKey("key")).thenReturn(Optional.of(application));
+
+        assertThat(cache.lookup("key")).map(ApplicationSnapshot::name).contains("App");
+        assertThat(cache.lookup("key")).isPresent();
+        verify(applicationRepository, times(1)).findByApiKey("key");
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(cache.lookup("key")).isPresent();
+        verify(applicationRepository, times(2)).findByApiKey("key");
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Unknown keys are negatively cached and can be invalidated")
+    void unknownKeysAreNegativelyCached() {
+        ApiKeyCache cache = newCache(10);
+        when(applicationRepository.findByApiKey("missing")).thenReturn(Optional.empty());
+
+        assertThat(cache.lookup("missing")).isEmpty();
+        assertThat(cache.lookup("missing")).isEmpty();
+        verify(applicationRepository, times(1)).findByApiKey("missing");
+        assertThat(cache.stats().negativeHits()).isEqualTo(1);
+
+        cache.invalidate("missing");
+        assertThat(cache.lookup("missing")).isEmpty();
+        verify(applicationRepository, times(2)).findByApiKey("missing");
+    }
+
+    @Test
+    @DisplayName("A lookup overtaken by an invalidation does not cache what it loaded")
+    void invalidationDuringLoadIsNotCached() {
+        ApiKeyCache cache = newCache(10);
+        when(applicationRepository.findByApiKey("key")).thenAnswer(invocation -> {
+            cache.invalidate("key");
+            return Optional.empty();
+        });
+
+        assertThat(cache.lookup("key")).isEmpty();
+        assertThat(cache.stats().size()).isZero();
+        assertThat(cache.lookup("key")).isEmpty();
+        verify(applicationRepository, times(2)).findByApiKey("key");
+    }
+
+    @Test
+    @DisplayName("A lookup overtaken by clearing the cache does not cache what it loaded")
+    void invalidateAllDuringLoadIsNotCached() {
+        ApiKeyCache cache = newCache(10);
+        when(applicationRepository.findByApiKey("key")).thenAnswer(invocation -> {
+            cache.invalidateAll();
+            return Optional.empty();
+        });
+
+        assertThat(cache.lookup("key")).isEmpty();
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("The cache never holds more than its maximum size")
+    void cacheIsBounded() {
+        ApiKeyCache cache = newCache(3);
+        when(applicationRepository.findByApiKey(anyString())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 20; i++) {
+            cache.lookup("key-" + i);
+        }
+
+        assertThat(cache.stats().size()).isLessThanOrEqualTo(3);
+        assertThat(cache.stats().evictions()).isEqualTo(17);
+    }
+
+    private ApiKeyCache newCache(int maxSize) {
+        ApiKeyCacheProperties properties = new ApiKeyCacheProperties(maxSize, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        return new ApiKeyCache(applicationRepository, properties, clock);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ApiKeyGeneratorTest {
+
+    private final ApiKeyGenerator generator = new ApiKeyGenerator(new Random(42));
+
+    @Test
+    @DisplayName("Generated keys are prefixed, distinct and pass their own checksum")
+    void generatesWellFormedKeys() {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String key = generator.generate();
+            assertThat(key).startsWith(ApiKeyGenerator.KEY_PREFIX).hasSize(41);
+            assertThat(ApiKeyGenerator.isMalformed(key)).isFalse();
+            keys.add(key);
+        }
+
+        assertThat(keys).hasSize(10_000);
+    }
+
+    @Test
+    @DisplayName("Altered or truncated keys fail the checksum while legacy keys are left alone")
+    void detectsMalformedKeys() {
+        String key = generator.generate();
+        char flipped = key.charAt(10) == 'A' ? 'B' : 'A';
+        String altered = key.substring(0, 10) + flipped + key.substring(11);
+
+        assertThat(ApiKeyGenerator.isMalformed(altered)).isTrue();
+        assertThat(ApiKeyGenerator.isMalformed(key.substring(0, key.length() - 1))).isTrue();
+        assertThat(ApiKeyGenerator.isMalformed("ft_")).isTrue();
+        assertThat(ApiKeyGenerator.isMalformed("0f8fad5b-d9cb-469f-a165-70867728950e")).isFalse();
+    }
+}
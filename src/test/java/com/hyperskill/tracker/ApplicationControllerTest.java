@@ -12,7 +12,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -106,7 +113,8 @@ class ApplicationControllerTest {
             objectMapper.readValue(response, ApplicationRegistrationResponse.class);
 
         assertThat(applicationRepository.existsByName("Workout App")).isTrue();
-        assertThat(applicationRepository.existsByApiKey(registrationResponse.apikey())).isTrue();
+        assertThat(applicationRepository.findByApiKey(registrationResponse.apikey())).isPresent();
+        assertThat(registrationResponse.apikey()).startsWith(ApiKeyGenerator.KEY_PREFIX);
         assertThat(registrationResponse.category()).isEqualTo("premium");
     }
 
@@ -130,6 +138,45 @@ class ApplicationControllerTest {
             .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Concurrent registrations of one name create exactly one application")
+    void concurrentRegistrationsOfOneNameCreateOneApplication() throws Exception {
+        Developer developer = persistDeveloper("race@example.com", "password");
+        String body = objectMapper.writeValueAsString(new ApplicationRegistrationRequest("Race", "desc", "basic"));
+        String authorization = basicAuthHeader(developer.getEmail(), "password");
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Integer> registration = () -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/applications/register")
+                            .header("Authorization", authorization)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                        .andReturn()
+                        .getResponse()
+                        .getStatus();
+                };
+                statuses.add(executor.submit(registration));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+            assertThat(results).filteredOn(status -> status == 201).hasSize(1);
+            assertThat(results).filteredOn(status -> status == 400).hasSize(threads - 1);
+            assertThat(applicationRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private Developer persistDeveloper(String email, String rawPassword) {
         Developer developer = new Developer(email, passwordEncoder.encode(rawPassword));
         return developerRepository.save(developer);
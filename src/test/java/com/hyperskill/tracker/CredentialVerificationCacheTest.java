@@ -0,0 +1,43 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CredentialVerificationCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CredentialVerificationCache cache = new CredentialVerificationCache(
+        new DeveloperAuthProperties(4, 2, Duration.ofMinutes(2), Duration.ofHours(1), Duration.ofMinutes(1)),
+        clock
+    );
+
+    @Test
+    @DisplayName("A verified pair is remembered only for the same password, hash and TTL")
+    void remembersVerifiedPairs() {
+        cache.verified("dev@example.com", "secret", "hash-1");
+
+        assertThat(cache.isVerified("dev@example.com", "secret", "hash-1")).isTrue();
+        assertThat(cache.isVerified("dev@example.com", "other", "hash-1")).isFalse();
+        assertThat(cache.isVerified("dev@example.com", "secret", "hash-2")).isFalse();
+
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(cache.isVerified("dev@example.com", "secret", "hash-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalidating a developer drops all of their entries and the cache stays bounded")
+    void invalidatesByEmailAndStaysBounded() {
+        cache.verified("dev@example.com", "secret", "hash-1");
+        cache.verified("dev@example.com", "secret-2", "hash-1");
+        cache.invalidate("dev@example.com");
+        assertThat(cache.size()).isZero();
+
+        cache.verified("a@example.com", "secret", "hash");
+        cache.verified("b@example.com", "secret", "hash");
+        cache.verified("c@example.com", "secret", "hash");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -16,7 +17,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +42,9 @@ class DeveloperControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DeveloperTokenStore tokenStore;
+
     @AfterEach
     void tearDown() {
         applicationRepository.deleteAll();
@@ -92,6 +98,123 @@ class DeveloperControllerTest {
         assertThat(root.get("applications").get(1).get("name").asText()).isEqualTo("First");
     }
 
+    @Test
+    @DisplayName("Cached verifications still reject wrong and changed passwords")
+    void cachedVerificationFollowsPasswordChanges() throws Exception {
+        Developer developer = persistDeveloper("cached@example.com", "password");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/developers/" + developer.getId())
+                    .header("Authorization", basicAuthHeader(developer.getEmail(), "password")))
+                .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "wrong")))
+            .andExpect(status().isUnauthorized());
+
+        Developer stored = developerRepository.findById(developer.getId()).orElseThrow();
+        stored.setPassword(passwordEncoder.encode("changed"));
+        developerRepository.save(stored);
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "password")))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "changed")))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Passwords hashed with a weaker BCrypt strength are re-encoded on login")
+    void weakerHashesAreUpgradedOnLogin() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        Developer developer = developerRepository.save(new Developer("weak@example.com", weakHash));
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "password")))
+            .andExpect(status().isOk());
+
+        String upgraded = developerRepository.findById(developer.getId()).orElseThrow().getPassword();
+        assertThat(upgraded).isNotEqualTo(weakHash).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("password", upgraded)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Re-encoding a password on login keeps the developer's bearer tokens")
+    void upgradingHashKeepsTokens() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        Developer developer = developerRepository.save(new Developer("rehash@example.com", weakHash));
+        String bearer = "Bearer " + tokenStore.issue(developer.getEmail()).token();
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "password")))
+            .andExpect(status().isOk());
+
+        assertThat(developerRepository.findById(developer.getId()).orElseThrow().getPassword())
+            .isNotEqualTo(weakHash);
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", bearer))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("A password login issues a bearer token that authenticates later calls until revoked")
+    void bearerTokenLifecycle() throws Exception {
+        Developer developer = persistDeveloper("token@example.com", "password");
+
+        String response = mockMvc.perform(post("/api/developers/token")
+                .header("Authorization", basicAuthHeader(developer.getEmail(), "password")))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.tokenType").value("Bearer"))
+            .andExpect(jsonPath("$.expiresAt").exists())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String bearer = "Bearer " + objectMapper.readTree(response).get("token").asText();
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value(developer.getEmail()));
+
+        mockMvc.perform(post("/api/developers/token")
+                .header("Authorization", bearer))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/api/developers/token")
+                .header("Authorization", bearer))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", bearer))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Registering an application refreshes the cached developer profile")
+    void registrationInvalidatesCachedProfile() throws Exception {
+        Developer developer = persistDeveloper("profile@example.com", "password");
+        String authorization = basicAuthHeader(developer.getEmail(), "password");
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applications").isEmpty());
+
+        mockMvc.perform(post("/api/applications/register")
+                .header("Authorization", authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new ApplicationRegistrationRequest("Cached App", "description", "basic")
+                )))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/developers/" + developer.getId())
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applications[0].name").value("Cached App"));
+    }
+
     private Developer persistDeveloper(String email, String rawPassword) {
         Developer developer = new Developer(email, passwordEncoder.encode(rawPassword));
         return developerRepository.save(developer);
@@ -0,0 +1,46 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DeveloperTokenStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final DeveloperTokenStore store = new DeveloperTokenStore(
+        new DeveloperAuthProperties(4, 0, Duration.ZERO, Duration.ofMinutes(10), Duration.ofMinutes(1)),
+        clock
+    );
+
+    @Test
+    @DisplayName("Issued tokens authenticate their developer until they expire and are swept")
+    void tokensExpireAndAreSwept() {
+        DeveloperToken token = store.issue("dev@example.com");
+
+        assertThat(token.token()).startsWith(DeveloperTokenStore.TOKEN_PREFIX);
+        assertThat(store.authenticate(token.token())).contains("dev@example.com");
+        assertThat(store.authenticate(token.token() + "x")).isEmpty();
+
+        clock.advance(Duration.ofMinutes(11));
+        assertThat(store.authenticate(token.token())).isEmpty();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Revoking by token or by developer removes the session")
+    void revokesTokens() {
+        DeveloperToken first = store.issue("dev@example.com");
+        DeveloperToken second = store.issue("dev@example.com");
+        DeveloperToken other = store.issue("other@example.com");
+
+        store.revoke(first.token());
+        assertThat(store.authenticate(first.token())).isEmpty();
+        assertThat(store.authenticate(second.token())).isPresent();
+
+        store.revokeAll("dev@example.com");
+        assertThat(store.authenticate(second.token())).isEmpty();
+        assertThat(store.authenticate(other.token())).contains("other@example.com");
+    }
+}
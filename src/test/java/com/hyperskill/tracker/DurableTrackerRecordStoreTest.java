@@ -0,0 +1,234 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableTrackerRecordStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Records, indexes and the id sequence survive a restart")
+    void recoversRecordsAfterRestart() {
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            append(store, "App", "alice", "Run");
+            append(store, "Other", "bob", "Swim");
+            append(store, "App", "alice", "Ride");
+        }
+
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            assertThat(ids(store.newestFirst())).containsExactly(3L, 2L, 1L);
+            assertThat(ids(store.newestFirstByApplication("App"))).containsExactly(3L, 1L);
+            assertThat(ids(store.newestFirstByUsername("bob"))).containsExactly(2L);
+
+            TrackerRecord next = append(store, "App", "carol", "Walk");
+            assertThat(next.id()).isEqualTo(4L);
+        }
+
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            assertThat(ids(store.newestFirst())).containsExactly(4L, 3L, 2L, 1L);
+        }
+    }
+
+    @Test
+    @DisplayName("A record torn by a crash is dropped and its id is reused")
+    void ignoresTornTail() throws IOException {
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            append(store, "App", "alice", "Run");
+            append(store, "App", "alice", "Torn");
+        }
+        corrupt("Torn");
+
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            assertThat(ids(store.newestFirst())).containsExactly(1L);
+            assertThat(append(store, "App", "alice", "Ride").id()).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    @DisplayName("A torn record inside an older segment leaves a gap and its ids are not reused")
+    void recoversPastGap() throws IOException {
+        try (DurableTrackerRecordStore store = open(1_000, Duration.ZERO)) {
+            for (int i = 1; i <= 150; i++) {
+                append(store, "App", "user-" + i, "Run");
+            }
+        }
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        corrupt("user-50");
+
+        try (DurableTrackerRecordStore store = open(1_000, Duration.ZERO)) {
+            List<Long> ids = ids(store.newestFirst());
+            assertThat(ids).startsWith(150L).contains(49L).doesNotContain(50L);
+            assertThat(store.size()).isEqualTo(ids.size()).isLessThan(150);
+            assertThat(append(store, "App", "alice", "Ride").id()).isEqualTo(151L);
+        }
+
+        try (DurableTrackerRecordStore store = open(1_000, Duration.ZERO)) {
+            assertThat(ids(store.newestFirst())).startsWith(151L, 150L).contains(49L);
+            assertThat(append(store, "App", "alice", "Walk").id()).isEqualTo(152L);
+        }
+    }
+
+    @Test
+    @DisplayName("Ids carry on after a restart even when every record has been compacted away")
+    void keepsIdSequenceWhenEverythingIsCompacted() {
+        try (DurableTrackerRecordStore store = open(100, Duration.ofMinutes(10))) {
+            append(store, "App", "alice", "Run");
+            append(store, "App", "alice", "Swim");
+        }
+        clock.advance(Duration.ofMinutes(11));
+
+        try (DurableTrackerRecordStore store = open(100, Duration.ofMinutes(10))) {
+            store.compact();
+        }
+
+        try (DurableTrackerRecordStore store = open(100, Duration.ofMinutes(10))) {
+            assertThat(append(store, "App", "alice", "Ride").id()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    @DisplayName("A record too large for a log segment is rejected and not stored")
+    void rejectsRecordLargerThanSegment() {
+        try (DurableTrackerRecordStore store = open(100, Duration.ZERO)) {
+            assertThatThrownBy(() -> append(store, "App", "a".repeat(5_000), "Run"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+            assertThat(store.size()).isZero();
+            assertThat(append(store, "App", "alice", "Run").id()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("Group commit fails instead of hanging when the log cannot be forced")
+    void groupCommitFailsWhenForceFails() {
+        TrackerRecordLog failingLog = new TrackerRecordLog(directory, 4_096) {
+            @Override
+            public long force() {
+                throw new UncheckedIOException(new IOException("Disk unavailable"));
+            }
+        };
+        try (DurableTrackerRecordStore store = new DurableTrackerRecordStore(
+            failingLog,
+            100,
+            4,
+            Duration.ZERO,
+            clock,
+            DurableTrackerRecordStore.FsyncPolicy.GROUP,
+            Duration.ofMillis(5),
+            Duration.ofHours(1)
+        )) {
+            assertThatThrownBy(() -> append(store, "App", "alice", "Run"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Disk unavailable");
+            assertThatThrownBy(() -> append(store, "App", "alice", "Swim"))
+                .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Segments outside capacity or retention are deleted")
+    void compactsOldSegments() throws IOException {
+        try (DurableTrackerRecordStore store = open(8, Duration.ofMinutes(10))) {
+            for (int i = 0; i < 300; i++) {
+                append(store, "App", "user-" + i, "Run");
+            }
+            int before = segmentFiles().size();
+            assertThat(before).isGreaterThan(2);
+
+            assertThat(store.compact()).isPositive();
+            assertThat(segmentFiles()).hasSizeLessThan(before);
+
+            clock.advance(Duration.ofMinutes(11));
+            append(store, "App", "alice", "Run");
+            store.compact();
+            assertThat(segmentFiles()).hasSize(1);
+        }
+
+        try (DurableTrackerRecordStore store = open(8, Duration.ofMinutes(10))) {
+            assertThat(ids(store.newestFirst())).containsExactly(301L);
+        }
+    }
+
+    @Test
+    @DisplayName("Group commit only returns once the record has been forced")
+    void groupCommitWaitsForForce() {
+        try (DurableTrackerRecordStore store = new DurableTrackerRecordStore(
+            new TrackerRecordLog(directory, 4_096),
+            100,
+            4,
+            Duration.ZERO,
+            clock,
+            DurableTrackerRecordStore.FsyncPolicy.GROUP,
+            Duration.ofMillis(5),
+            Duration.ofHours(1)
+        )) {
+            TrackerRecord record = append(store, "App", "alice", "Run");
+
+            assertThat(record.id()).isEqualTo(1L);
+            assertThat(store.size()).isEqualTo(1);
+        }
+    }
+
+    private DurableTrackerRecordStore open(int capacity, Duration retention) {
+        return new DurableTrackerRecordStore(
+            new TrackerRecordLog(directory, 4_096),
+            capacity,
+            4,
+            retention,
+            clock,
+            DurableTrackerRecordStore.FsyncPolicy.INTERVAL,
+            Duration.ofHours(1),
+            Duration.ofHours(1)
+        );
+    }
+
+    private static TrackerRecord append(TrackerRecordStore store, String application, String username, String activity) {
+        return store.append(id -> new TrackerRecord(id, application, username, activity, 10, 20));
+    }
+
+    private void corrupt(String marker) throws IOException {
+        byte[] needle = marker.getBytes(StandardCharsets.UTF_8);
+        for (Path path : segmentFiles()) {
+            byte[] bytes = Files.readAllBytes(path);
+            for (int i = 0; i <= bytes.length - needle.length; i++) {
+                if (Arrays.equals(bytes, i, i + needle.length, needle, 0, needle.length)) {
+                    bytes[i] ^= 0x7f;
+                    Files.write(path, bytes);
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("Marker not found in log");
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static List<Long> ids(Iterator<TrackerRecord> iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(record -> ids.add(record.id()));
+        return ids;
+    }
+}
@@ -1,12 +1,27 @@
 package com.hyperskill.tracker;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +33,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -108,6 +124,31 @@ class FitnessTrackerControllerTest {
             .andExpect(jsonPath("$[0].calories").value(600));
     }
 
+    @Test
+    @DisplayName("Single-record uploads are validated like batch items")
+    void createRecordRejectsInvalidRequest() throws Exception {
+        Application application = persistApplication("Strict Tracker", "premium");
+
+        for (TrackerRecordRequest request : List.of(
+            new TrackerRecordRequest(null, "Run", 600, 200),
+            new TrackerRecordRequest("alice", " ", 600, 200),
+            new TrackerRecordRequest("alice", "Run", -1, 200),
+            new TrackerRecordRequest("a".repeat(256), "Run", 600, 200),
+            new TrackerRecordRequest("alice", "R".repeat(256), 600, 200)
+        )) {
+            mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     @DisplayName("Basic applications are limited to one request per second across tracker endpoints")
     void basicApplicationRateLimitedAcrossEndpoints() throws Exception {
@@ -123,7 +164,10 @@ class FitnessTrackerControllerTest {
 
         mockMvc.perform(get("/api/tracker")
                 .header("X-API-Key", application.getApiKey()))
-            .andExpect(status().isTooManyRequests());
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(header().string(FitnessTrackerController.RATE_LIMIT_LIMIT_HEADER, "1"))
+            .andExpect(header().string(FitnessTrackerController.RATE_LIMIT_REMAINING_HEADER, "0"));
 
         Thread.sleep(1_100L);
 
@@ -159,11 +203,417 @@ class FitnessTrackerControllerTest {
             .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("Tracker listing supports limit, cursor and username/activity filters")
+    void listRecordsSupportsPaginationAndFilters() throws Exception {
+        Application application = persistApplication("Paging Tracker", "premium");
+
+        for (int i = 0; i < 5; i++) {
+            TrackerRecordRequest request = new TrackerRecordRequest(i % 2 == 0 ? "dave" : "erin", "Run", 600 + i, 100);
+            mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+
+        String nextCursor = mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].duration").value(604))
+            .andExpect(jsonPath("$[1].duration").value(603))
+            .andExpect(header().exists(FitnessTrackerController.NEXT_CURSOR_HEADER))
+            .andReturn()
+            .getResponse()
+            .getHeader(FitnessTrackerController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .param("limit", "2")
+                .param("cursor", nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].duration").value(602))
+            .andExpect(jsonPath("$[1].duration").value(601));
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .param("username", "dave")
+                .param("activity", "Run"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(header().doesNotExist(FitnessTrackerController.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .param("to", "2000-01-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Streaming listing writes a JSON array or NDJSON depending on Accept")
+    void streamRecordsHonoursAcceptHeader() throws Exception {
+        Application application = persistApplication("Streaming Tracker", "premium");
+
+        for (int i = 0; i < 3; i++) {
+            TrackerRecordRequest request = new TrackerRecordRequest("frank", "Walk", 300 + i, 50);
+            mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/tracker/stream")
+                .header("X-API-Key", application.getApiKey())
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].duration").value(302));
+
+        String body = mockMvc.perform(get("/api/tracker/stream")
+                .header("X-API-Key", application.getApiKey())
+                .param("limit", "2")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], TrackerRecord.class).duration()).isEqualTo(302);
+        assertThat(objectMapper.readValue(lines[1], TrackerRecord.class).duration()).isEqualTo(301);
+    }
+
+    @Test
+    @DisplayName("Batch ingest assigns consecutive ids and reports a status per item")
+    void batchIngestReturnsPerItemResults() throws Exception {
+        Application application = persistApplication("Batch Tracker", "basic");
+
+        List<TrackerRecordRequest> batch = List.of(
+            new TrackerRecordRequest("gina", "Run", 600, 200),
+            new TrackerRecordRequest(" ", "Run", 600, 200),
+            new TrackerRecordRequest("gina", "Swim", 900, 300)
+        );
+
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(2))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.results[0].status").value(201))
+            .andExpect(jsonPath("$.results[0].record.id").value(1))
+            .andExpect(jsonPath("$.results[1].status").value(400))
+            .andExpect(jsonPath("$.results[1].error").value("username must not be blank"))
+            .andExpect(jsonPath("$.results[2].record.id").value(2))
+            .andExpect(jsonPath("$.results[2].record.application").value("Batch Tracker"));
+
+        Thread.sleep(1_100L);
+
+        String ndjson = objectMapper.writeValueAsString(new TrackerRecordRequest("hank", "Yoga", 300, 80))
+            + "\n{not json\n\n"
+            + objectMapper.writeValueAsString(new TrackerRecordRequest("hank", "Row", 400, 90)) + "\n";
+
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(2))
+            .andExpect(jsonPath("$.results", hasSize(3)))
+            .andExpect(jsonPath("$.results[1].error").value("Malformed record"))
+            .andExpect(jsonPath("$.results[2].record.id").value(4));
+
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Binary uploads are decoded, validated and answered like JSON ones")
+    void binaryIngestUsesSameValidationAndResponses() throws Exception {
+        Application application = persistApplication("Binary Tracker", "premium");
+
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                .content(binary(false, new TrackerRecordRequest("ivy", "Hike", 3600, 900))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(1))
+            .andExpect(jsonPath("$.username").value("ivy"))
+            .andExpect(jsonPath("$.calories").value(900));
+
+        byte[] batch = binary(true,
+            new TrackerRecordRequest("ivy", "Run", 600, 200),
+            new TrackerRecordRequest(null, "Run", 600, 200),
+            new TrackerRecordRequest("jon", "Swim", -1, 300)
+        );
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                .content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(1))
+            .andExpect(jsonPath("$.results[0].record.id").value(2))
+            .andExpect(jsonPath("$.results[1].error").value("username must not be blank"))
+            .andExpect(jsonPath("$.results[2].error").value("duration must be greater than or equal to 0"));
+
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                .content(Arrays.copyOf(batch, batch.length - 1)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                .content(Arrays.copyOf(batch, batch.length + 1)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Invalid single binary records and negative batch counts are rejected")
+    void binaryIngestRejectsInvalidInput() throws Exception {
+        Application application = persistApplication("Binary Validation", "premium");
+
+        for (TrackerRecordRequest request : List.of(
+            new TrackerRecordRequest(null, "Hike", 3600, 900),
+            new TrackerRecordRequest("ivy", " ", 3600, 900),
+            new TrackerRecordRequest("ivy", "Hike", -1, 900)
+        )) {
+            mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                    .content(binary(false, request)))
+                .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(post("/api/tracker/batch")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(TrackerRecordBinaryConverter.MEDIA_TYPE)
+                .content(new byte[] {-1, -1, -1, -1}))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("A rejected API key works as soon as an application is registered with it")
+    void registeringApplicationInvalidatesCachedApiKey() throws Exception {
+        TrackerRecordRequest request = new TrackerRecordRequest("ivy", "Hike", 3600, 900);
+
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", "late-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isUnauthorized());
+
+        persistApplication("Late Tracker", "premium", "late-key");
+
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", "late-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.application").value("Late Tracker"));
+    }
+
+    @Test
+    @DisplayName("Stats endpoints return rolled-up totals for the calling application")
+    void statsReturnRollups() throws Exception {
+        Application application = persistApplication("Stats Tracker", "premium");
+        Application other = persistApplication("Other Tracker", "premium");
+
+        for (TrackerRecordRequest request : List.of(
+            new TrackerRecordRequest("erin", "Run", 600, 200),
+            new TrackerRecordRequest("erin", "Swim", 300, 100),
+            new TrackerRecordRequest("frank", "Run", 900, 400)
+        )) {
+            mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", other.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TrackerRecordRequest("erin", "Run", 50, 50))))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tracker/stats")
+                .header("X-API-Key", application.getApiKey())
+                .param("username", "erin"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.application").value("Stats Tracker"))
+            .andExpect(jsonPath("$.count").value(2))
+            .andExpect(jsonPath("$.duration").value(900))
+            .andExpect(jsonPath("$.calories").value(300))
+            .andExpect(jsonPath("$.activity").doesNotExist());
+
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        mockMvc.perform(get("/api/tracker/stats/daily")
+                .header("X-API-Key", application.getApiKey())
+                .param("activity", "Run")
+                .param("from", LocalDate.now(ZoneOffset.UTC).minusDays(1).toString())
+                .param("to", today))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].count").value(0))
+            .andExpect(jsonPath("$[1].day").value(today))
+            .andExpect(jsonPath("$[1].calories").value(600));
+
+        mockMvc.perform(get("/api/tracker/stats/daily")
+                .header("X-API-Key", application.getApiKey())
+                .param("from", today)
+                .param("to", LocalDate.now(ZoneOffset.UTC).minusDays(1).toString()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Live feed replays records after Last-Event-ID and then pushes new ones")
+    void feedResumesFromLastEventId() throws Exception {
+        Application application = persistApplication("Feed Tracker", "premium");
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            TrackerRecordRequest request = new TrackerRecordRequest("gina", "Run", 700 + i, 100);
+            String body = mockMvc.perform(post("/api/tracker")
+                    .header("X-API-Key", application.getApiKey())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            ids.add(objectMapper.readValue(body, TrackerRecord.class).id());
+        }
+
+        MvcResult feed = mockMvc.perform(get("/api/tracker/feed")
+                .header("X-API-Key", application.getApiKey())
+                .header("Last-Event-ID", ids.get(0).toString())
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TrackerRecordRequest("gina", "Swim", 800, 100))))
+            .andExpect(status().isCreated());
+
+        String events = awaitContent(feed, "\"duration\":800");
+        assertThat(events).doesNotContain("id:" + ids.get(0) + "\n");
+        assertThat(events).contains("id:" + ids.get(1) + "\n", "id:" + ids.get(2) + "\n");
+        assertThat(events.indexOf("\"duration\":702")).isLessThan(events.indexOf("\"duration\":703"));
+        assertThat(events.indexOf("\"duration\":703")).isLessThan(events.indexOf("\"duration\":800"));
+    }
+
+    @Test
+    @DisplayName("Metrics endpoint reports ingest, rate limiter rejections and API key lookups")
+    void metricsEndpointReportsTrackerMeters() throws Exception {
+        Application application = persistApplication("Metered Tracker", "basic");
+        TrackerRecordRequest request = new TrackerRecordRequest("erin", "Swim", 900, 300);
+
+        mockMvc.perform(post("/api/tracker")
+                .header("X-API-Key", application.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", application.getApiKey()))
+            .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/tracker")
+                .header("X-API-Key", "unknown-key"))
+            .andExpect(status().isUnauthorized());
+
+        String authorization = "Basic " + Base64.getEncoder()
+            .encodeToString("metered tracker@example.com:password".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/actuator/metrics"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/tracker.records.ingested")
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/tracker.rate_limit.rejections")
+                .param("tag", "category:basic")
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/tracker.auth.lookup")
+                .param("tag", "result:unknown")
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].statistic").value("COUNT"))
+            .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/tracker.store.size")
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")
+                .header("Authorization", authorization))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.availableTags[?(@.tag == 'uri')].values[*]", hasItem("/api/tracker")));
+    }
+
+    private static byte[] binary(boolean batch, TrackerRecordRequest... requests) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        if (batch) {
+            output.writeInt(requests.length);
+        }
+        for (TrackerRecordRequest request : requests) {
+            for (String value : new String[] {request.username(), request.activity()}) {
+                if (value == null) {
+                    output.writeShort(-1);
+                } else {
+                    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                    output.writeShort(utf8.length);
+                    output.write(utf8);
+                }
+            }
+            output.writeInt(request.duration());
+            output.writeInt(request.calories());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000L;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
     private Application persistApplication(String name, String category) {
+        return persistApplication(name, category, UUID.randomUUID().toString());
+    }
+
+    private Application persistApplication(String name, String category, String apiKey) {
         Developer developer = new Developer(name.toLowerCase() + "@example.com", passwordEncoder.encode("password"));
         Developer savedDeveloper = developerRepository.save(developer);
 
-        String apiKey = UUID.randomUUID().toString();
         Application application = new Application(name, "description", apiKey, category, savedDeveloper);
         return applicationRepository.save(application);
     }
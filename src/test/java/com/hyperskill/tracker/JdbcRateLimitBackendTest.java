@@ -0,0 +1,120 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class JdbcRateLimitBackendTest {
+
+    private static final RateLimitPolicy POLICY =
+        new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 4, Duration.ofSeconds(4), 2);
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("Replicas sharing the table never admit more than the bucket capacity together")
+    void replicasShareOneBucket() {
+        JdbcRateLimitBackend first = newBackend(2);
+        JdbcRateLimitBackend second = newBackend(2);
+        long now = 1_000_000L;
+
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            JdbcRateLimitBackend node = i % 2 == 0 ? first : second;
+            if (node.tryAcquire(7L, POLICY, now).allowed()) {
+                admitted++;
+            }
+        }
+
+        assertThat(admitted).isEqualTo(POLICY.capacity());
+    }
+
+    @Test
+    @DisplayName("Leased tokens are served without a database write per request")
+    void leasedTokensAreServedLocally() {
+        JdbcRateLimitBackend backend = newBackend(3);
+        long now = 1_000_000L;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryAcquire(7L, POLICY, now).allowed()).isTrue();
+        }
+
+        Double sharedTokens = jdbcTemplate.queryForObject(
+            "SELECT tokens FROM " + JdbcRateLimitBackend.TABLE_NAME + " WHERE application_id = 7", Double.class
+        );
+        assertThat(sharedTokens).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("An empty shared bucket reports when the next token is available and refills over time")
+    void emptyBucketRefills() {
+        JdbcRateLimitBackend backend = newBackend(10);
+        long now = 1_000_000L;
+
+        for (int i = 0; i < POLICY.capacity(); i++) {
+            assertThat(backend.tryAcquire(7L, POLICY, now).allowed()).isTrue();
+        }
+
+        RateLimitDecision rejected = backend.tryAcquire(7L, POLICY, now);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMillis()).isEqualTo(1_000L);
+
+        assertThat(backend.tryAcquire(7L, POLICY, now + 1_000L).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A drained bucket with burst is not deleted before it has fully refilled")
+    void drainedBucketIsKeptUntilRefilled() {
+        RateLimitPolicy policy = new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 1, Duration.ofMinutes(1), 2);
+        JdbcRateLimitBackend backend = new JdbcRateLimitBackend(jdbcTemplate, new TrackerRateLimitProperties(
+            TrackerRateLimitProperties.Backend.JDBC, Duration.ofMinutes(1), 10, Map.of("basic", policy)
+        ));
+        long now = 1_000_000L;
+        for (int i = 0; i < policy.capacity(); i++) {
+            assertThat(backend.tryAcquire(7L, policy, now).allowed()).isTrue();
+        }
+
+        long later = now + Duration.ofSeconds(61).toMillis();
+        backend.tryAcquire(8L, policy, later);
+
+        assertThat(backend.tryAcquire(7L, policy, later).allowed()).isTrue();
+        assertThat(backend.tryAcquire(7L, policy, later).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sliding-window policies are rejected up front")
+    void slidingWindowPoliciesAreNotSupported() {
+        RateLimitPolicy slidingWindow = new RateLimitPolicy(RateLimitPolicy.Algorithm.SLIDING_WINDOW_LOG, 1, Duration.ofSeconds(1), 0);
+        TrackerRateLimitProperties properties = new TrackerRateLimitProperties(
+            TrackerRateLimitProperties.Backend.JDBC, Duration.ofMinutes(10), 10, Map.of("basic", slidingWindow)
+        );
+
+        assertThatThrownBy(() -> new JdbcRateLimitBackend(jdbcTemplate, properties))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private JdbcRateLimitBackend newBackend(int leaseSize) {
+        TrackerRateLimitProperties properties = new TrackerRateLimitProperties(
+            TrackerRateLimitProperties.Backend.JDBC, Duration.ofMinutes(10), leaseSize, Map.of("basic", POLICY)
+        );
+        return new JdbcRateLimitBackend(jdbcTemplate, properties);
+    }
+}
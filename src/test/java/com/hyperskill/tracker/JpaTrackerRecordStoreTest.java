@@ -0,0 +1,149 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "tracker.store.type=jpa")
+class JpaTrackerRecordStoreTest {
+
+    @Autowired
+    private TrackerRecordStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DeveloperRepository developerRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @BeforeEach
+    void setUp() {
+        Developer developer = developerRepository.save(new Developer("jpa@example.com", "password"));
+        applicationRepository.save(new Application("First", "description", "first-key", "basic", developer));
+        applicationRepository.save(new Application("Second", "description", "second-key", "basic", developer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Reads no longer flush, so queued records must reach the table before it is cleared.
+        ((JpaTrackerRecordStore) store).flush();
+        jdbcTemplate.update("DELETE FROM tracker_records");
+        applicationRepository.deleteAll();
+        developerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("The JPA store is selected by tracker.store.type=jpa")
+    void jpaStoreIsConfigured() {
+        assertThat(store).isInstanceOf(JpaTrackerRecordStore.class);
+    }
+
+    @Test
+    @DisplayName("Queued records are visible to the next read and page by id cursor")
+    void readsSeeQueuedRecordsAndPageByKeyset() {
+        TrackerRecord first = append("First", "alice", "Run");
+        TrackerRecord second = append("Second", "bob", "Swim");
+        TrackerRecord third = append("First", "alice", "Ride");
+
+        assertThat(ids(store.newestFirst())).containsExactly(third.id(), second.id(), first.id());
+        assertThat(ids(store.newestFirstByApplication("First"))).containsExactly(third.id(), first.id());
+        assertThat(ids(store.newestFirstByUsername("bob"))).containsExactly(second.id());
+
+        TrackerRecordQuery afterCursor = new TrackerRecordQuery(null, null, null, null, null, third.id(), 1);
+        assertThat(ids(store.newestFirst(afterCursor))).containsExactly(second.id());
+
+        TrackerRecordQuery future = new TrackerRecordQuery(
+            null, null, null, Instant.now().plusSeconds(60), null, null, Integer.MAX_VALUE
+        );
+        assertThat(ids(store.newestFirst(future))).isEmpty();
+
+        Iterator<TrackerRecord> records = store.newestFirstByApplication("Second");
+        assertThat(records.next()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Large batches are written in order with increasing ids")
+    void writesLargeBatches() {
+        List<LongFunction<TrackerRecord>> factories = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String username = "user-" + (i % 10);
+            factories.add(id -> new TrackerRecord(id, "First", username, "Run", 10, 20));
+        }
+
+        long approximateSize = store.approximateSize();
+        List<TrackerRecord> appended = store.appendAll(factories);
+
+        assertThat(store.size()).isEqualTo(5_000);
+        assertThat(store.approximateSize()).isEqualTo(approximateSize + 5_000);
+        List<Long> ids = ids(store.newestFirst());
+        assertThat(ids).hasSize(5_000);
+        assertThat(ids.get(0)).isEqualTo(appended.get(appended.size() - 1).id());
+        assertThat(ids).isSortedAccordingTo((left, right) -> Long.compare(right, left));
+        assertThat(ids(store.newestFirstByUsername("user-3"))).hasSize(500);
+    }
+
+    @Test
+    @DisplayName("A row the table rejects is dropped without blocking the rest of the queue")
+    void dropsRowsThatCannotBeWritten() {
+        long approximateSize = store.approximateSize();
+        List<TrackerRecord> appended = store.appendAll(List.of(
+            id -> new TrackerRecord(id, "First", "alice", "Run", 10, 20),
+            id -> new TrackerRecord(id, "First", "x".repeat(300), "Run", 10, 20),
+            id -> new TrackerRecord(id, "Second", "bob", "Swim", 10, 20)
+        ));
+        ((JpaTrackerRecordStore) store).flush();
+
+        TrackerRecord later = append("First", "carol", "Ride");
+        ((JpaTrackerRecordStore) store).flush();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM tracker_records ORDER BY id DESC", Long.class))
+            .containsExactly(later.id(), appended.get(2).id(), appended.get(0).id());
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.approximateSize()).isEqualTo(approximateSize + 3);
+    }
+
+    @Test
+    @DisplayName("Rows are queued again, not dropped, when the database rather than the row fails")
+    void requeuesRowsWhenTheDatabaseFails() {
+        List<TrackerRecord> appended;
+        jdbcTemplate.execute("ALTER TABLE tracker_records RENAME TO tracker_records_away");
+        try {
+            appended = store.appendAll(List.of(
+                id -> new TrackerRecord(id, "First", "alice", "Run", 10, 20),
+                id -> new TrackerRecord(id, "Second", "bob", "Swim", 10, 20)
+            ));
+            assertThatThrownBy(() -> ((JpaTrackerRecordStore) store).flush()).isInstanceOf(RuntimeException.class);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE tracker_records_away RENAME TO tracker_records");
+        }
+        ((JpaTrackerRecordStore) store).flush();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM tracker_records ORDER BY id DESC", Long.class))
+            .containsExactly(appended.get(1).id(), appended.get(0).id());
+    }
+
+    private TrackerRecord append(String application, String username, String activity) {
+        return store.append(id -> new TrackerRecord(id, application, username, activity, 10, 20));
+    }
+
+    private static List<Long> ids(Iterator<TrackerRecord> iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(record -> ids.add(record.id()));
+        return ids;
+    }
+}
@@ -0,0 +1,145 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SegmentedTrackerRecordStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    @DisplayName("Records are returned newest first with ids assigned in append order")
+    void newestFirstReturnsRecordsInReverseAppendOrder() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(10, 4, Duration.ZERO, clock);
+
+        append(store, "App", "alice", "Run");
+        append(store, "App", "bob", "Swim");
+        append(store, "App", "alice", "Ride");
+
+        assertThat(ids(store.newestFirst())).containsExactly(3L, 2L, 1L);
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Oldest segments are dropped once capacity is exceeded")
+    void oldestSegmentIsEvictedWhenFull() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(8, 4, Duration.ZERO, clock);
+
+        for (int i = 0; i < 30; i++) {
+            append(store, "App", "user-" + (i % 3), "Run");
+        }
+
+        List<Long> ids = ids(store.newestFirst());
+        assertThat(ids).hasSizeBetween(8, 12);
+        assertThat(ids.get(0)).isEqualTo(30L);
+        assertThat(ids).isSortedAccordingTo((left, right) -> Long.compare(right, left));
+        assertThat(store.size()).isEqualTo(ids.size());
+        assertThat(store.evictions()).isEqualTo(30L - ids.size());
+    }
+
+    @Test
+    @DisplayName("Secondary indexes only return matching records and forget evicted ones")
+    void indexesFollowEviction() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(4, 2, Duration.ZERO, clock);
+
+        append(store, "First", "alice", "Run");
+        append(store, "Second", "bob", "Run");
+        for (int i = 0; i < 10; i++) {
+            append(store, "Second", "carol", "Swim");
+        }
+        append(store, "First", "alice", "Ride");
+
+        assertThat(ids(store.newestFirstByApplication("First"))).containsExactly(13L);
+        assertThat(ids(store.newestFirstByUsername("alice"))).containsExactly(13L);
+        assertThat(ids(store.newestFirstByUsername("bob"))).isEmpty();
+        assertThat(ids(store.newestFirstByUsername("nobody"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Records older than the retention window are no longer returned")
+    void retentionDropsExpiredRecords() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(100, 2, Duration.ofMinutes(5), clock);
+
+        append(store, "App", "alice", "Run");
+        append(store, "App", "alice", "Run");
+        append(store, "App", "alice", "Run");
+        clock.advance(Duration.ofMinutes(10));
+        append(store, "App", "alice", "Swim");
+
+        assertThat(ids(store.newestFirst())).containsExactly(4L);
+        assertThat(ids(store.newestFirstByUsername("alice"))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Listings larger than one read chunk are returned completely")
+    void iterationSpansMultipleChunks() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(2_000, 64, Duration.ZERO, clock);
+
+        for (int i = 0; i < 1_000; i++) {
+            append(store, "App", i % 2 == 0 ? "even" : "odd", "Run");
+        }
+
+        assertThat(ids(store.newestFirst())).hasSize(1_000);
+        assertThat(ids(store.newestFirstByUsername("even"))).hasSize(500).first().isEqualTo(999L);
+    }
+
+    @Test
+    @DisplayName("A combined filter that rarely matches is answered across several bounded scans")
+    void sparseCombinedFilterSpansScanChunks() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(20_000, 256, Duration.ZERO, clock);
+
+        for (int i = 0; i < 20_000; i++) {
+            boolean alice = i % 2 == 0;
+            append(store, "App", alice ? "alice" : "bob", !alice || i % 10_000 == 0 ? "Swim" : "Run");
+        }
+
+        TrackerRecordQuery aliceSwims = new TrackerRecordQuery(null, "alice", "Swim", null, null, null, Integer.MAX_VALUE);
+        assertThat(ids(store.newestFirst(aliceSwims))).containsExactly(10_001L, 1L);
+
+        TrackerRecordQuery olderAliceSwims = new TrackerRecordQuery(null, "alice", "Swim", null, null, 10_001L, 1);
+        assertThat(ids(store.newestFirst(olderAliceSwims))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Queries combine index filters, id cursor, time window and limit")
+    void queryAppliesAllFilters() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(100, 4, Duration.ZERO, clock);
+
+        Instant start = clock.instant();
+        for (int i = 0; i < 10; i++) {
+            append(store, "App", i % 2 == 0 ? "alice" : "bob", i % 3 == 0 ? "Swim" : "Run");
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        TrackerRecordQuery aliceRuns = new TrackerRecordQuery(null, "alice", "Run", null, null, null, Integer.MAX_VALUE);
+        assertThat(ids(store.newestFirst(aliceRuns))).containsExactly(9L, 5L, 3L);
+
+        TrackerRecordQuery page = new TrackerRecordQuery(null, null, null, null, null, 8L, 3);
+        assertThat(ids(store.newestFirst(page))).containsExactly(7L, 6L, 5L);
+
+        TrackerRecordQuery window = new TrackerRecordQuery(
+            null, null, null, start.plus(Duration.ofMinutes(2)), start.plus(Duration.ofMinutes(5)), null, Integer.MAX_VALUE
+        );
+        assertThat(ids(store.newestFirst(window))).containsExactly(5L, 4L, 3L);
+
+        TrackerRecordQuery unknown = new TrackerRecordQuery("Other", null, null, null, null, null, Integer.MAX_VALUE);
+        assertThat(ids(store.newestFirst(unknown))).isEmpty();
+    }
+
+    private static void append(TrackerRecordStore store, String application, String username, String activity) {
+        store.append(id -> new TrackerRecord(id, application, username, activity, 600, 200));
+    }
+
+    private static List<Long> ids(Iterator<TrackerRecord> iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(record -> ids.add(record.id()));
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TrackerRateLimiterTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryRateLimitBackend backend = new InMemoryRateLimitBackend(Duration.ofMinutes(10));
+
+    @Test
+    @DisplayName("Token bucket admits the burst and then refills at the configured rate")
+    void tokenBucketAllowsBurstThenRefills() {
+        TrackerRateLimiter limiter = newLimiter(new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 2, Duration.ofSeconds(1), 1));
+        ApplicationSnapshot application = new ApplicationSnapshot(1L, "App", "basic");
+
+        assertThat(limiter.tryAcquire(application).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+
+        RateLimitDecision rejected = limiter.tryAcquire(application);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMillis()).isEqualTo(500L);
+
+        clock.advance(Duration.ofMillis(500));
+        assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(application).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sliding window log admits at most limit plus burst requests per window")
+    void slidingWindowLogLimitsRequestsPerWindow() {
+        TrackerRateLimiter limiter = newLimiter(new RateLimitPolicy(RateLimitPolicy.Algorithm.SLIDING_WINDOW_LOG, 3, Duration.ofSeconds(10), 0));
+        ApplicationSnapshot application = new ApplicationSnapshot(1L, "App", "basic");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        RateLimitDecision rejected = limiter.tryAcquire(application);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMillis()).isEqualTo(7_000L);
+
+        clock.advance(Duration.ofSeconds(7));
+        assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Categories without a policy are unlimited")
+    void categoriesWithoutPolicyAreUnlimited() {
+        TrackerRateLimiter limiter = newLimiter(new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 1, Duration.ofSeconds(1), 0));
+        ApplicationSnapshot application = new ApplicationSnapshot(2L, "App", "premium");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire(application)).isEqualTo(RateLimitDecision.UNLIMITED);
+        }
+        assertThat(backend.trackedApplications()).isZero();
+    }
+
+    @Test
+    @DisplayName("Idle limiter state is evicted")
+    void idleStateIsEvicted() {
+        TrackerRateLimiter limiter = newLimiter(new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 1, Duration.ofSeconds(1), 0));
+
+        for (long id = 1; id <= 50; id++) {
+            limiter.tryAcquire(new ApplicationSnapshot(id, "App " + id, "BASIC"));
+        }
+        assertThat(backend.trackedApplications()).isEqualTo(50);
+
+        clock.advance(Duration.ofMinutes(11));
+        limiter.tryAcquire(new ApplicationSnapshot(99L, "Fresh", "basic"));
+        assertThat(backend.trackedApplications()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A token bucket with burst is kept until it has fully refilled")
+    void drainedBucketIsKeptUntilRefilled() {
+        TrackerRateLimiter limiter = newLimiter(new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 1, Duration.ofMinutes(10), 2));
+        ApplicationSnapshot application = new ApplicationSnapshot(1L, "App", "basic");
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+        }
+
+        clock.advance(Duration.ofMinutes(11));
+        limiter.tryAcquire(new ApplicationSnapshot(2L, "Other", "basic"));
+
+        assertThat(limiter.tryAcquire(application).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(application).allowed()).isFalse();
+    }
+
+    private TrackerRateLimiter newLimiter(RateLimitPolicy basicPolicy) {
+        TrackerRateLimitProperties properties = new TrackerRateLimitProperties(
+            TrackerRateLimitProperties.Backend.MEMORY, Duration.ofMinutes(10), 10, Map.of("basic", basicPolicy)
+        );
+        return new TrackerRateLimiter(properties, backend, clock);
+    }
+}
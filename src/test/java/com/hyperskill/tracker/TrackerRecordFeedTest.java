@@ -0,0 +1,176 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class TrackerRecordFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private final TrackerRecordStore store = new SegmentedTrackerRecordStore(100, 8, Duration.ZERO, Clock.systemUTC());
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private final Executor stalledDispatcher = pendingTasks::add;
+    private final TrackerRecordFeed feed = new TrackerRecordFeed(
+        store,
+        new TrackerFeedProperties(2, 1, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+        stalledDispatcher
+    );
+
+    @Test
+    @DisplayName("A subscriber that falls a full buffer behind is disconnected")
+    void dropsSlowSubscriber() {
+        feed.subscribe("App", null);
+        feed.subscribe("Other", null);
+
+        publish("App");
+        publish("App");
+        assertThat(feed.subscriberCount("App")).isEqualTo(1);
+
+        publish("App");
+        assertThat(feed.subscriberCount("App")).isZero();
+        assertThat(feed.subscriberCount("Other")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Draining the buffer keeps the subscriber connected")
+    void drainedSubscriberStaysConnected() {
+        feed.subscribe("App", null);
+
+        for (int i = 0; i < 5; i++) {
+            publish("App");
+            runPendingTasks();
+        }
+
+        assertThat(feed.subscriberCount("App")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Every record reaches the subscriber when concurrent ingest publishes them out of order")
+    void deliversEveryRecordUnderConcurrentIngest() throws Exception {
+        TrackerRecordFeed directFeed = new TrackerRecordFeed(
+            store,
+            new TrackerFeedProperties(10_000, 1, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+            Runnable::run
+        );
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        directFeed.subscribe("App", null, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                Matcher id = EVENT_ID.matcher(builder.build().iterator().next().getData().toString());
+                assertThat(id.find()).isTrue();
+                received.add(Long.parseLong(id.group(1)));
+            }
+        });
+
+        int threads = 8;
+        int recordsPerThread = 500;
+        TrackerRecordStore bigStore = new SegmentedTrackerRecordStore(10_000, 64, Duration.ZERO, Clock.systemUTC());
+        ExecutorService ingest = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(ingest.submit(() -> {
+                start.await();
+                for (int i = 0; i < recordsPerThread; i++) {
+                    directFeed.publish(bigStore.append(id -> new TrackerRecord(id, "App", "alice", "Run", 10, 20)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        ingest.shutdown();
+
+        assertThat(received).hasSize(threads * recordsPerThread);
+        assertThat(new HashSet<>(received))
+            .isEqualTo(LongStream.rangeClosed(1, threads * recordsPerThread).boxed().collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("A subscriber whose send outlasts the send timeout is dropped without holding up the others")
+    void dropsSubscriberStuckInSend() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        TrackerRecordFeed pooledFeed = new TrackerRecordFeed(
+            store,
+            new TrackerFeedProperties(10, 1, Duration.ofMinutes(1), Duration.ofMillis(100)),
+            pool
+        );
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch stuckCompleted = new CountDownLatch(1);
+        SseEmitter stuck = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public synchronized void complete() {
+                stuckCompleted.countDown();
+            }
+        };
+        CountDownLatch delivered = new CountDownLatch(1);
+
+        try {
+            pooledFeed.subscribe("App", null, stuck);
+            pooledFeed.publish(store.append(id -> new TrackerRecord(id, "App", "alice", "Run", 10, 20)));
+            pooledFeed.subscribe("App", null, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    delivered.countDown();
+                }
+            });
+            pooledFeed.publish(store.append(id -> new TrackerRecord(id, "App", "alice", "Run", 10, 20)));
+
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pooledFeed.subscriberCount("App") > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(pooledFeed.subscriberCount("App")).isEqualTo(1);
+            assertThat(stuckCompleted.getCount()).isEqualTo(1);
+
+            unblock.countDown();
+            assertThat(stuckCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            unblock.countDown();
+            pooledFeed.close();
+        }
+    }
+
+    private void publish(String application) {
+        TrackerRecord record = store.append(id -> new TrackerRecord(id, application, "alice", "Run", 10, 20));
+        feed.publish(record);
+    }
+
+    private void runPendingTasks() {
+        List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
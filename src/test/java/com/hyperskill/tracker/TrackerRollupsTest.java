@@ -0,0 +1,91 @@
+package com.hyperskill.tracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TrackerRollupsTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.parse("2024-01-01");
+
+    private final MutableClock clock = new MutableClock();
+    private final TrackerRollups rollups = new TrackerRollups(new TrackerStatsProperties(2, 100), clock);
+
+    @Test
+    @DisplayName("Totals are kept for every combination of username, activity and day")
+    void aggregatesByEveryFilterCombination() {
+        rollups.record(new TrackerRecord(1L, "App", "alice", "Run", 600, 200));
+        rollups.record(new TrackerRecord(2L, "App", "alice", "Swim", 300, 100));
+        rollups.record(new TrackerRecord(3L, "App", "bob", "Run", 900, 400));
+        rollups.record(new TrackerRecord(4L, "Other", "alice", "Run", 1_000, 1_000));
+
+        assertThat(rollups.stats("App", null, null, null).orElseThrow())
+            .isEqualTo(new TrackerStats("App", null, null, null, 3L, 1_800L, 700L));
+        assertThat(rollups.stats("App", "alice", null, FIRST_DAY).orElseThrow())
+            .isEqualTo(new TrackerStats("App", "alice", null, FIRST_DAY, 2L, 900L, 300L));
+        assertThat(rollups.stats("App", null, "Run", null).orElseThrow())
+            .isEqualTo(new TrackerStats("App", null, "Run", null, 2L, 1_500L, 600L));
+        assertThat(rollups.stats("App", "carol", null, null).orElseThrow().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Day buckets past retention are dropped while all-time totals remain")
+    void dropsExpiredDays() {
+        rollups.record(new TrackerRecord(1L, "App", "alice", "Run", 600, 200));
+        clock.advance(Duration.ofDays(2));
+        rollups.record(new TrackerRecord(2L, "App", "alice", "Run", 300, 100));
+
+        assertThat(rollups.stats("App", "alice", "Run", FIRST_DAY).orElseThrow().count()).isZero();
+        assertThat(rollups.stats("App", "alice", "Run", FIRST_DAY.plusDays(2)).orElseThrow().count()).isEqualTo(1L);
+        assertThat(rollups.stats("App", "alice", "Run", null).orElseThrow().calories()).isEqualTo(300L);
+        assertThat(rollups.bucketCount()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("A record without a username or activity is counted once per bucket")
+    void countsRecordsWithMissingFieldsOnce() {
+        rollups.record(new TrackerRecord(1L, "App", null, null, 600, 200));
+
+        assertThat(rollups.stats("App", null, null, null).orElseThrow().count()).isEqualTo(1L);
+        assertThat(rollups.stats("App", null, null, FIRST_DAY).orElseThrow().count()).isEqualTo(1L);
+        assertThat(rollups.bucketCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Stats for a username are refused once its records no longer fit the username buckets")
+    void refusesUsernamesPastTheBucketLimit() {
+        TrackerRollups bounded = new TrackerRollups(new TrackerStatsProperties(2, 6), clock);
+        bounded.record(new TrackerRecord(1L, "App", "alice", "Run", 600, 200));
+        bounded.record(new TrackerRecord(2L, "App", "bob", "Run", 300, 100));
+
+        assertThat(bounded.stats("App", "alice", null, null).orElseThrow().count()).isEqualTo(1L);
+        assertThat(bounded.stats("App", "bob", null, null)).isEmpty();
+        assertThat(bounded.stats("App", "bob", "Run", FIRST_DAY)).isEmpty();
+        assertThat(bounded.stats("App", null, null, null).orElseThrow().count()).isEqualTo(2L);
+
+        clock.advance(Duration.ofDays(1));
+        bounded.record(new TrackerRecord(3L, "App", "alice", "Run", 600, 200));
+
+        assertThat(bounded.stats("App", "alice", null, null)).isEmpty();
+        assertThat(bounded.stats("App", null, "Run", null).orElseThrow().count()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Totals are rebuilt from the records a store already holds")
+    void rebuildsFromStore() {
+        SegmentedTrackerRecordStore store = new SegmentedTrackerRecordStore(100, 4, Duration.ZERO, clock);
+        store.append(id -> new TrackerRecord(id, "App", "alice", "Run", 600, 200));
+        clock.advance(Duration.ofDays(1));
+        store.append(id -> new TrackerRecord(id, "App", "alice", "Swim", 300, 100));
+
+        TrackerRollups rebuilt = new TrackerRollups(new TrackerStatsProperties(2, 100), clock);
+        rebuilt.rebuild(store);
+
+        assertThat(rebuilt.stats("App", "alice", null, null).orElseThrow().count()).isEqualTo(2L);
+        assertThat(rebuilt.stats("App", null, "Run", FIRST_DAY).orElseThrow().calories()).isEqualTo(200L);
+        assertThat(rebuilt.stats("App", null, null, FIRST_DAY.plusDays(1)).orElseThrow().duration()).isEqualTo(300L);
+    }
+}